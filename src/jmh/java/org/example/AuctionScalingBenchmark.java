@@ -0,0 +1,51 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Solve times of the auction solver by thread count, each on a pool of its own, next to the network simplex.
+// Thread counts above the number of processors only measure the cost of contention.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuctionScalingBenchmark {
+    @Param({"500", "1000", "2000"})
+    int size;
+
+    @Param({"1", "2", "4", "8"})
+    int threads;
+
+    TransportationProblem problem;
+    ForkJoinPool pool;
+
+    @Setup
+    public void generate() {
+        problem = TransportationProblemGenerator.generate(size, size, 10, 100, 100, 1);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long auction() {
+        AuctionTransportationSolver solver = new AuctionTransportationSolver(problem, pool, threads);
+        solver.solve();
+        return solver.getCost();
+    }
+
+    // does not depend on the thread count; run it with -p threads=1
+    @Benchmark
+    public long networkSimplex() {
+        NetworkSimplexSolver solver = new NetworkSimplexSolver(problem);
+        solver.solve();
+        return solver.getCost();
+    }
+}
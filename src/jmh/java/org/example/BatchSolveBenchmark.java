@@ -0,0 +1,59 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// A batch of many small problems: one parallel solver after another against the batch solver on the common
+// fork/join pool and on virtual threads
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchSolveBenchmark {
+    @Param({"2000"})
+    int count;
+
+    @Param({"60"})
+    int maxSize;
+
+    List<TransportationProblem> problems;
+
+    @Setup
+    public void generate() {
+        Random random = new Random(1);
+        problems = new ArrayList<>();
+        for (int k = 0; k < count; ++k)
+            problems.add(TransportationProblemGenerator.generate(random.nextInt(maxSize) + 5, random.nextInt(maxSize) + 5, 10, 100, 100, k));
+    }
+
+    @Benchmark
+    public long oneByOne() {
+        long totalCost = 0;
+        for (TransportationProblem problem : problems) {
+            ParallelTransportationProblemSolver solver = new ParallelTransportationProblemSolver(problem);
+            solver.solve();
+            totalCost += solver.getCost();
+        }
+        return totalCost;
+    }
+
+    @Benchmark
+    public BatchReport forkJoinBatch() {
+        return new BatchSolver().solveAll(problems.stream());
+    }
+
+    @Benchmark
+    public BatchReport virtualThreadBatch() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return new BatchSolver(executor, Runtime.getRuntime().availableProcessors()).solveAll(problems.stream());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class BenchmarkProblem {
+    @Param({"200", "500", "1000"})
+    int size;
+
+    @Param({"10", "100"})
+    int maxCost;
+
+    @Param({"1"})
+    long seed;
+
+    @Param({"sequential", "parallel"})
+    String solver;
+
+    @Param({"NESTED", "FLAT"})
+    MatrixLayout layout;
+
+    TransportationProblem problem;
+
+    @Setup
+    public void generate() {
+        problem = TransportationProblemGenerator.generate(size, size, maxCost, 100, 100, seed);
+    }
+
+    TransportationProblemSolver newSolver() {
+        TransportationProblemSolver newSolver = solver.equals("parallel") ? new ParallelTransportationProblemSolver(problem) : new TransportationProblemSolver(problem);
+        newSolver.setMatrixLayout(layout);
+        return newSolver;
+    }
+}
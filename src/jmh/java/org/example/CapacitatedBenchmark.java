@@ -0,0 +1,51 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The bounded-variable solver on a problem with a share of capped cells against the plain solver, which ignores
+// the caps
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CapacitatedBenchmark {
+    @Param({"500"})
+    int size;
+
+    @Param({"0.0", "0.2"})
+    double cappedShare;
+
+    TransportationProblem problem;
+    CellCapacities capacities;
+
+    @Setup
+    public void generate() {
+        problem = TransportationProblemGenerator.generate(size, size, 10, 100, 100, 1);
+        Random random = new Random(1);
+        int[][] capacity = new int[size][size];
+        for (int i = 0; i < size; ++i) {
+            for (int j = 0; j < size; ++j)
+                capacity[i][j] = random.nextDouble() < cappedShare ? random.nextInt(20) + 1 : CellCapacities.UNLIMITED;
+        }
+        capacities = CellCapacities.dense(capacity);
+    }
+
+    @Benchmark
+    public long uncapacitated() {
+        TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+        solver.solve();
+        return solver.getCost();
+    }
+
+    @Benchmark
+    public long capacitated() {
+        CapacitatedTransportationProblemSolver solver = new CapacitatedTransportationProblemSolver(problem, capacities);
+        solver.solve();
+        return solver.getCost();
+    }
+}
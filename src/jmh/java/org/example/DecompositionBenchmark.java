@@ -0,0 +1,82 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Block-structured problems: a number of independent regions of blockSize x blockSize with every lane between
+// regions forbidden, rows and columns shuffled so the blocks are not simply on the diagonal. Compares the network
+// simplex on the whole matrix with the decomposing solver.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecompositionBenchmark {
+    private static final int FORBIDDEN_COST = 1_000_000;
+
+    @Param({"8"})
+    int blocks;
+
+    @Param({"250"})
+    int blockSize;
+
+    TransportationProblem problem;
+
+    @Setup
+    public void generate() {
+        problem = blockProblem(blocks, blockSize, 1);
+    }
+
+    @Benchmark
+    public long wholeMatrix() {
+        NetworkSimplexSolver solver = new NetworkSimplexSolver(problem);
+        solver.solve();
+        return solver.getCost();
+    }
+
+    @Benchmark
+    public long decomposed() {
+        DecomposingTransportationSolver solver = new DecomposingTransportationSolver(problem, FORBIDDEN_COST);
+        solver.solve();
+        return solver.getCost();
+    }
+
+    static TransportationProblem blockProblem(int blocks, int blockSize, long seed) {
+        int size = blocks * blockSize;
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] rowOf = shuffledIdentity(size, random), colOf = shuffledIdentity(size, random);
+
+        int[][] cost = new int[size][size];
+        for (int[] costRow : cost)
+            Arrays.fill(costRow, FORBIDDEN_COST);
+        int[] supply = new int[size], demand = new int[size];
+        for (int b = 0; b < blocks; ++b) {
+            TransportationProblem block = TransportationProblemGenerator.generate(blockSize, blockSize, 10, 100, 100, seed + b);
+            for (int r = 0; r < blockSize; ++r) {
+                int i = rowOf[b * blockSize + r];
+                supply[i] = block.supply[r];
+                for (int c = 0; c < blockSize; ++c)
+                    cost[i][colOf[b * blockSize + c]] = block.cost[r][c];
+            }
+            for (int c = 0; c < blockSize; ++c)
+                demand[colOf[b * blockSize + c]] = block.demand[c];
+        }
+        return new TransportationProblem(cost, supply, demand);
+    }
+
+    private static int[] shuffledIdentity(int size, SplittableRandom random) {
+        int[] permutation = new int[size];
+        for (int k = 0; k < size; ++k)
+            permutation[k] = k;
+        for (int k = size - 1; k > 0; --k) {
+            int other = random.nextInt(k + 1), swap = permutation[k];
+            permutation[k] = permutation[other];
+            permutation[other] = swap;
+        }
+        return permutation;
+    }
+}
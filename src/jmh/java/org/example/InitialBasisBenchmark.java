@@ -0,0 +1,46 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Full solves from each initial basis; a better start has to save more pivots than it costs to find
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InitialBasisBenchmark {
+    @Param({"500"})
+    int size;
+
+    @Param({"northwest", "leastCost", "rowMinimum", "vogel", "parallelVogel"})
+    String method;
+
+    TransportationProblem problem;
+
+    @Setup
+    public void generate() {
+        problem = TransportationProblemGenerator.generate(size, size, 10, 100, 100, 1);
+    }
+
+    @Benchmark
+    public long solve() {
+        TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+        solver.setInitialBasisMethod(newMethod());
+        solver.solve();
+        return solver.getCost();
+    }
+
+    // the northwest corner start is what the solver does without a method
+    InitialBasisMethod newMethod() {
+        return switch (method) {
+            case "leastCost" -> new LeastCostMethod();
+            case "rowMinimum" -> new RowMinimumMethod();
+            case "vogel" -> new VogelApproximationMethod();
+            case "parallelVogel" -> new ParallelVogelApproximationMethod();
+            default -> null;
+        };
+    }
+}
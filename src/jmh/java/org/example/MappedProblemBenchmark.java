@@ -0,0 +1,83 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// The binary problem format: writing, reading to the heap and mapping a problem file, solving from the heap against
+// solving from the mapping, and writing the allocation file
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappedProblemBenchmark {
+    @Param({"500"})
+    int size;
+
+    TransportationProblem problem;
+    MappedTransportationProblem mappedProblem;
+    SparseAllocation allocation;
+    Path problemFile, allocationFile;
+
+    @Setup
+    public void generate() throws IOException {
+        problem = TransportationProblemGenerator.generate(size, size, 10, 100, 100, 1);
+        problemFile = Files.createTempFile("problem", ".tprb");
+        allocationFile = Files.createTempFile("allocation", ".tpal");
+        ProblemFiles.write(problem, problemFile);
+        mappedProblem = ProblemFiles.map(problemFile);
+
+        TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+        solver.solve();
+        allocation = solver.getSparseAllocation();
+    }
+
+    @TearDown
+    public void delete() throws IOException {
+        Files.deleteIfExists(problemFile);
+        Files.deleteIfExists(allocationFile);
+    }
+
+    @Benchmark
+    public Path write() {
+        ProblemFiles.write(problem, problemFile);
+        return problemFile;
+    }
+
+    @Benchmark
+    public TransportationProblem readToHeap() {
+        return ProblemFiles.read(problemFile);
+    }
+
+    @Benchmark
+    public MappedTransportationProblem map() {
+        return ProblemFiles.map(problemFile);
+    }
+
+    @Benchmark
+    public long solveFromHeap() {
+        TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+        solver.solve();
+        return solver.getCost();
+    }
+
+    @Benchmark
+    public long solveFromMapping() {
+        MappedTransportationProblemSolver solver = new MappedTransportationProblemSolver(mappedProblem);
+        solver.solve();
+        return solver.getCost();
+    }
+
+    @Benchmark
+    public Path writeAllocation() {
+        try (AllocationWriter writer = new AllocationWriter(allocationFile, size, size)) {
+            writer.write(allocation);
+        }
+        return allocationFile;
+    }
+}
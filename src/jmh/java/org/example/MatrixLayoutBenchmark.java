@@ -0,0 +1,40 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Full solves by matrix layout and cycle search. The depth-first search is too slow to be timed on the largest
+// problems, so the default size stays at 500.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatrixLayoutBenchmark {
+    @Param({"500"})
+    int size;
+
+    @Param({"NESTED", "FLAT"})
+    MatrixLayout layout;
+
+    @Param({"DEPTH_FIRST", "SPANNING_TREE"})
+    CycleSearch cycleSearch;
+
+    TransportationProblem problem;
+
+    @Setup
+    public void generate() {
+        problem = TransportationProblemGenerator.generate(size, size, 10, 100, 100, 1);
+    }
+
+    @Benchmark
+    public long solve() {
+        TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+        solver.setCycleSearch(cycleSearch);
+        solver.setMatrixLayout(layout);
+        solver.solve();
+        return solver.getCost();
+    }
+}
@@ -0,0 +1,38 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// The network simplex against the MODI solver on the same balanced problems
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NetworkSimplexBenchmark {
+    @Param({"500", "1000", "2000"})
+    int size;
+
+    TransportationProblem problem;
+
+    @Setup
+    public void generate() {
+        problem = TransportationProblemGenerator.generate(size, size, 10, 100, 100, 1);
+    }
+
+    @Benchmark
+    public long modi() {
+        TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+        solver.solve();
+        return solver.getCost();
+    }
+
+    @Benchmark
+    public long networkSimplex() {
+        NetworkSimplexSolver solver = new NetworkSimplexSolver(problem);
+        solver.solve();
+        return solver.getCost();
+    }
+}
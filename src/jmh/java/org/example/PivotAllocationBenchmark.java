@@ -0,0 +1,37 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Whole solves on one reused solver, meant to be read with the GC profiler that BenchmarkRunner adds, e.g.
+// java -jar target/benchmarks.jar PivotAllocationBenchmark -p solver=sequential. Buffers are allocated by the first
+// solve in the setup, so gc.alloc.rate.norm shows what the pivots themselves allocate; it should stay at 0 B/op for
+// the sequential solver however many pivots a solve takes.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PivotAllocationBenchmark {
+    @State(Scope.Thread)
+    public static class ReusedSolver {
+        @Param({"SPANNING_TREE", "DEPTH_FIRST"})
+        CycleSearch cycleSearch;
+
+        TransportationProblemSolver solver;
+
+        @Setup(Level.Trial)
+        public void prepare(BenchmarkProblem problem) {
+            solver = problem.newSolver();
+            solver.setCycleSearch(cycleSearch);
+            solver.solve();
+        }
+    }
+
+    @Benchmark
+    public long solve(ReusedSolver state) {
+        state.solver.solve();
+        return state.solver.getCost();
+    }
+}
@@ -0,0 +1,46 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Full solves under each pricing strategy. Partial pricing scans blocks of a tenth of the rows, and the candidate
+// list keeps a tenth of the rows' worth of cells and is refreshed every 20 pivots.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PricingStrategyBenchmark {
+    @Param({"500"})
+    int size;
+
+    @Param({"dantzig", "firstNegative", "partial", "candidateList"})
+    String strategy;
+
+    TransportationProblem problem;
+
+    @Setup
+    public void generate() {
+        problem = TransportationProblemGenerator.generate(size, size, 10, 100, 100, 1);
+    }
+
+    @Benchmark
+    public long solve() {
+        TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+        solver.setPricingStrategy(newStrategy());
+        solver.solve();
+        return solver.getCost();
+    }
+
+    PricingStrategy newStrategy() {
+        int block = Math.max(1, size / 10);
+        return switch (strategy) {
+            case "firstNegative" -> new FirstNegativePricing();
+            case "partial" -> new PartialPricing(block);
+            case "candidateList" -> new CandidateListPricing(block, 20);
+            default -> new DantzigPricing();
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Row minimum of the flat pricing kernels in isolation, on rows of a 256-row cost block
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class RowPricingBenchmark {
+    private static final int ROWS = 256;
+
+    @Param({"100", "1000", "4000"})
+    int length;
+
+    @Param({"scalar", "vector"})
+    String kernel;
+
+    FlatRowPricing rowPricing;
+    int[] rowCost, v;
+    int row;
+
+    @Setup
+    public void generate() {
+        rowPricing = kernel.equals("vector") ? FlatRowPricing.vector() : FlatRowPricing.scalar();
+        Random random = new Random(1);
+        rowCost = new int[ROWS * length];
+        v = new int[length];
+        for (int k = 0; k < rowCost.length; ++k)
+            rowCost[k] = random.nextInt(100);
+        for (int j = 0; j < length; ++j)
+            v[j] = random.nextInt(100);
+    }
+
+    @Benchmark
+    public int rowMinimum() {
+        row = (row + 1) % ROWS;
+        return rowPricing.rowMinimum(rowCost, row * length, 50, v, length);
+    }
+}
@@ -0,0 +1,28 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SolveBenchmark {
+    @State(Scope.Thread)
+    public static class FreshSolver {
+        TransportationProblemSolver solver;
+
+        @Setup(Level.Iteration)
+        public void create(BenchmarkProblem problem) {
+            solver = problem.newSolver();
+        }
+    }
+
+    @Benchmark
+    public long solve(FreshSolver state) {
+        state.solver.solve();
+        return state.solver.getCost();
+    }
+}
@@ -0,0 +1,61 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Single phases of the first pivot. Every phase except the northwest corner start leaves the solver state as it
+// found it, so it is measured repeatedly on one prepared solver.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverPhaseBenchmark {
+    @State(Scope.Thread)
+    public static class FreshSolver {
+        TransportationProblemSolver solver;
+
+        @Setup(Level.Invocation)
+        public void create(BenchmarkProblem problem) {
+            solver = problem.newSolver();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PivotReadySolver {
+        TransportationProblemSolver solver;
+
+        @Setup(Level.Trial)
+        public void prepare(BenchmarkProblem problem) {
+            solver = problem.newSolver();
+            solver.northwestCornerMethod();
+            solver.buildBasisTree();
+            solver.computePotentials();
+            solver.conductDeltaOperations();
+        }
+    }
+
+    @Benchmark
+    public int[][] northwestCornerMethod(FreshSolver state) {
+        state.solver.northwestCornerMethod();
+        return state.solver.allocation;
+    }
+
+    @Benchmark
+    public int[] computePotentials(PivotReadySolver state) {
+        state.solver.computePotentials();
+        return state.solver.u;
+    }
+
+    @Benchmark
+    public boolean conductDeltaOperations(PivotReadySolver state) {
+        return state.solver.conductDeltaOperations();
+    }
+
+    @Benchmark
+    public int buildChain(PivotReadySolver state) {
+        state.solver.buildChain();
+        return state.solver.chainLength;
+    }
+}
@@ -0,0 +1,77 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// A re-solve from the previous optimal basis against a solve from scratch of the changed problem. A few lanes change
+// price and some volume moves from one route to another.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WarmStartBenchmark {
+    @Param({"500"})
+    int size;
+
+    @Param({"10"})
+    int changedCells;
+
+    TransportationProblem problem, changedProblem;
+    ProblemChange change;
+
+    @Setup
+    public void generate() {
+        problem = TransportationProblemGenerator.generate(size, size, 10, 100, 100, 1);
+        Random random = new Random(1);
+        change = new ProblemChange();
+        for (int k = 0; k < changedCells; ++k)
+            change.setCost(random.nextInt(size), random.nextInt(size), random.nextInt(10) + 1);
+        int from = random.nextInt(size), to = random.nextInt(size), amount = random.nextInt(10) + 1;
+        change.setSupply(from, problem.supply[from] + amount);
+        change.setDemand(to, problem.demand[to] + amount);
+
+        changedProblem = copy(problem);
+        for (int[] costChange : change.costs)
+            changedProblem.cost[costChange[0]][costChange[1]] = costChange[2];
+        for (int[] supplyChange : change.supplies)
+            changedProblem.supply[supplyChange[0]] = supplyChange[1];
+        for (int[] demandChange : change.demands)
+            changedProblem.demand[demandChange[0]] = demandChange[1];
+    }
+
+    // resolve() moves the solver on to the changed problem, so every invocation starts from a freshly solved one
+    @State(Scope.Thread)
+    public static class SolvedSolver {
+        TransportationProblemSolver solver;
+
+        @Setup(Level.Invocation)
+        public void solve(WarmStartBenchmark benchmark) {
+            solver = new TransportationProblemSolver(benchmark.problem);
+            solver.solve();
+        }
+    }
+
+    @Benchmark
+    public long warm(SolvedSolver state) {
+        state.solver.resolve(change);
+        return state.solver.getCost();
+    }
+
+    @Benchmark
+    public long cold() {
+        TransportationProblemSolver solver = new TransportationProblemSolver(changedProblem);
+        solver.solve();
+        return solver.getCost();
+    }
+
+    static TransportationProblem copy(TransportationProblem problem) {
+        int[][] cost = new int[problem.cost.length][];
+        for (int i = 0; i < cost.length; ++i)
+            cost[i] = problem.cost[i].clone();
+        return new TransportationProblem(cost, problem.supply.clone(), problem.demand.clone());
+    }
+}
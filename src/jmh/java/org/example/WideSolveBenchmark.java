@@ -0,0 +1,39 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WideSolveBenchmark {
+    @Param({"200", "500", "1000"})
+    int size;
+
+    TransportationProblem problem;
+    WideTransportationProblem wideProblem;
+
+    @Setup
+    public void generate() {
+        problem = TransportationProblemGenerator.generate(size, size, 10, 100, 100, 1);
+        wideProblem = WideTransportationProblem.of(problem);
+    }
+
+    @Benchmark
+    public long intSolve() {
+        TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+        solver.solve();
+        return solver.getCost();
+    }
+
+    @Benchmark
+    public long wideSolve() {
+        WideTransportationProblemSolver solver = new WideTransportationProblemSolver(wideProblem);
+        solver.solve();
+        return solver.getCost();
+    }
+}
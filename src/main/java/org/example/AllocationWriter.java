@@ -0,0 +1,70 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Streams the non-zero cells of a solution to an allocation file. The cell count in the header is filled in on close.
+public class AllocationWriter implements AutoCloseable {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(12 << 12).order(ByteOrder.LITTLE_ENDIAN);
+    private int count;
+
+    public AllocationWriter(Path path, int m, int n) {
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.putInt(ProblemFiles.ALLOCATION_MAGIC).putInt(ProblemFiles.VERSION).putInt(m).putInt(n).putInt(0);
+    }
+
+    public void write(int i, int j, int amount) {
+        if (amount <= 0)
+            return;
+        if (buffer.remaining() < 12)
+            flush();
+        buffer.putInt(i).putInt(j).putInt(amount);
+        ++count;
+    }
+
+    // Skips cells with a zero amount, basic or not
+    public void write(int[][] allocation) {
+        for (int i = 0; i < allocation.length; ++i) {
+            for (int j = 0; j < allocation[i].length; ++j)
+                write(i, j, allocation[i][j]);
+        }
+    }
+
+    public void write(SparseAllocation allocation) {
+        for (int k = 0; k < allocation.size(); ++k)
+            write(allocation.rows[k], allocation.cols[k], allocation.amounts[k]);
+    }
+
+    @Override
+    public void close() {
+        try {
+            flush();
+            ByteBuffer countBuffer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(count).flip();
+            channel.write(countBuffer, ProblemFiles.HEADER_BYTES);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,545 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+// Bertsekas' auction algorithm with epsilon-scaling for balanced problems. Every unit of supply is a bidder and every
+// unit of demand an object with its own price. The units of one source are alike, so a source bids for all of its
+// unassigned units at once. The units of one destination are alike as well, so bidders see each destination as a
+// list of its units sorted by price.
+// Every round splits the sources that have units left to place into chunks across threads:
+// - each of them takes its cheapest units by cost plus current price and raises their prices with a compare-and-set
+//   loop, so competing bids meet in the price array without locks; a bid below a price raised meanwhile just loses
+// - the bidders whose bid is the final price resolve ties to the lowest source, again with compare-and-set
+// - the winners take their units over, and the sources they displace get those units back to bid with
+// Which thread raises a price first decides between equally cheap allocations, so with several threads the
+// allocation may differ from run to run; its cost does not.
+// Costs are multiplied by min(m, n) + 1. When the last phase ends with epsilon 1, taking the cheapest price of a
+// destination as its potential leaves no shipment with a reduced cost outside [0, epsilon], and a cycle of
+// shipments can only lower the scaled cost by min(m, n), less than one unscaled unit. The result is exactly optimal.
+// Memory and work grow with the total supply rather than with the number of cells.
+public class AuctionTransportationSolver implements TransportationSolver {
+    protected static final int DEFAULT_EPSILON_FACTOR = 5;
+    // rounds with fewer bidding sources times destinations than this run on the calling thread
+    protected static final int MIN_PARALLEL_CELLS = 1 << 15;
+    // cheapest units remembered per source between bids
+    protected static final int CANDIDATES = 32;
+    // raised units per ladder above which it is merge sorted rather than fixed by insertion
+    protected static final int MAX_INSERTIONS = 16;
+    private static final int NONE = -1;
+    private static final int NO_WINNER = Integer.MAX_VALUE;
+
+    protected final TransportationProblem problem;
+    protected final int m, n;
+    protected final ExecutorService executor;
+    protected final int numThreads;
+    protected int epsilonFactor = DEFAULT_EPSILON_FACTOR;
+
+    // units of destination j are objects objectStart[j]..objectStart[j + 1] - 1, bids of source i go to
+    // bidObject[bidStart[i]..bidStart[i] + bidCount[i])
+    protected int units;
+    protected int[] objectStart, objectSink, bidStart, bidCount, bidObject;
+    protected long[] bidPrice;
+    protected long scale, epsilon;
+    protected AtomicLongArray price;
+    protected AtomicIntegerArray winner, unassigned;
+    protected final AtomicInteger unassignedUnits = new AtomicInteger();
+    protected int[] owner;
+    protected long[] bestTotal;
+    // Sources that bid in the current round. Sources that get units back and destinations whose units change owner
+    // are collected per chunk, each once per round thanks to the round stamps.
+    protected int[] activeSources, nextActiveSources;
+    protected int activeCount, chunks;
+    protected AtomicIntegerArray sourceStamp, sinkStamp;
+    protected int[][] displacedSources, touchedSinks;
+    protected int[] displacedCount, touchedCount;
+    // objects of each destination sorted by price, with those prices as of the last sort; as prices only rise, they
+    // are lower bounds of the current prices
+    protected int[] ladder;
+    protected long[] ladderPrice;
+    // Source i remembers the units candidates[i][0..candidateCount[i]) from its last scan of all destinations. Every
+    // other unit cost at least candidateBound[i] plus price then, and prices only rise.
+    protected int[][] candidates;
+    protected int[] candidateCount;
+    protected long[] candidateBound;
+    // per chunk: a max-heap of the cheapest units seen while bidding, and a merge buffer for sorting ladders
+    protected int[][] heapObject, sortBuffer;
+    protected long[][] heapKey, sortKeyBuffer;
+
+    protected int[][] allocation;
+    protected int phaseCount, roundCount;
+
+    public AuctionTransportationSolver(TransportationProblem problem) {
+        this(problem, ForkJoinPool.commonPool());
+    }
+
+    public AuctionTransportationSolver(TransportationProblem problem, ExecutorService executor) {
+        this(problem, executor, ChunkRunner.defaultParallelism(executor));
+    }
+
+    // The executor is shared and never shut down here
+    public AuctionTransportationSolver(TransportationProblem problem, ExecutorService executor, int numThreads) {
+        if (numThreads <= 0)
+            throw new RuntimeException("Number of threads must be positive");
+        this.problem = problem;
+        this.m = problem.supply.length;
+        this.n = problem.demand.length;
+        this.executor = executor;
+        this.numThreads = numThreads;
+    }
+
+    // Epsilon is divided by this factor after every phase
+    public void setEpsilonFactor(int epsilonFactor) {
+        if (epsilonFactor < 2)
+            throw new RuntimeException("Epsilon factor must be at least 2");
+        this.epsilonFactor = epsilonFactor;
+    }
+
+    @Override
+    public void solve() {
+        prepare();
+        ChunkRunner runner = new ChunkRunner(executor, numThreads);
+
+        long maxCost = 0;
+        for (int[] costRow : problem.cost) {
+            for (int c : costRow)
+                maxCost = Math.max(maxCost, Math.abs((long) c));
+        }
+        // prices can climb by about the range of the scaled costs over all phases
+        if (maxCost > Long.MAX_VALUE / 8 / scale)
+            throw new RuntimeException("Costs are too large for the auction solver");
+        epsilon = Math.max(1, maxCost * scale / epsilonFactor);
+
+        phaseCount = 0;
+        roundCount = 0;
+        Arrays.fill(owner, NONE);
+        for (int i = 0; i < m; ++i)
+            unassigned.set(i, problem.supply[i]);
+        unassignedUnits.set(units);
+        while (true) {
+            runPhase(runner);
+            if (epsilon == 1)
+                break;
+            epsilon = Math.max(1, epsilon / epsilonFactor);
+        }
+
+        allocation = new int[m][n];
+        for (int o = 0; o < units; ++o)
+            ++allocation[owner[o]][objectSink[o]];
+    }
+
+    protected void prepare() {
+        long totalSupply = 0, totalDemand = 0;
+        for (int s : problem.supply)
+            totalSupply += s;
+        for (int d : problem.demand)
+            totalDemand += d;
+        if (totalSupply != totalDemand)
+            throw new RuntimeException("Auction solver needs a balanced problem");
+        if (totalSupply > MAX_NETWORK_ARCS)
+            throw new RuntimeException("Total supply is too large for the auction solver");
+
+        units = (int) totalSupply;
+        scale = Math.min(m, n) + 1L;
+        objectStart = new int[n + 1];
+        objectSink = new int[units];
+        for (int j = 0; j < n; ++j) {
+            objectStart[j + 1] = objectStart[j] + problem.demand[j];
+            Arrays.fill(objectSink, objectStart[j], objectStart[j + 1], j);
+        }
+        bidStart = new int[m + 1];
+        for (int i = 0; i < m; ++i)
+            bidStart[i + 1] = bidStart[i] + problem.supply[i];
+
+        bidCount = new int[m];
+        bidObject = new int[units];
+        bidPrice = new long[units];
+        price = new AtomicLongArray(units);
+        winner = new AtomicIntegerArray(units);
+        for (int o = 0; o < units; ++o)
+            winner.set(o, NO_WINNER);
+        unassigned = new AtomicIntegerArray(m);
+        owner = new int[units];
+        bestTotal = new long[m];
+        activeSources = new int[m];
+        nextActiveSources = new int[m];
+        sourceStamp = new AtomicIntegerArray(m);
+        sinkStamp = new AtomicIntegerArray(n);
+        displacedSources = new int[numThreads][m];
+        touchedSinks = new int[numThreads][n];
+        displacedCount = new int[numThreads];
+        touchedCount = new int[numThreads];
+        ladder = new int[units];
+        for (int o = 0; o < units; ++o)
+            ladder[o] = o;
+        ladderPrice = new long[units];
+
+        int maxSupply = 0, maxDemand = 0;
+        for (int s : problem.supply)
+            maxSupply = Math.max(maxSupply, s);
+        for (int d : problem.demand)
+            maxDemand = Math.max(maxDemand, d);
+        candidates = new int[m][CANDIDATES];
+        candidateCount = new int[m];
+        candidateBound = new long[m];
+        heapObject = new int[numThreads][Math.max(maxSupply, CANDIDATES) + 1];
+        heapKey = new long[numThreads][Math.max(maxSupply, CANDIDATES) + 1];
+        sortBuffer = new int[numThreads][maxDemand];
+        sortKeyBuffer = new long[numThreads][maxDemand];
+    }
+
+    // Runs the auction with the prices of the previous phase until every unit is assigned. Units that are still
+    // epsilon-optimal under the new epsilon keep their owners; the later phases then only rebid a small part of them.
+    protected void runPhase(ChunkRunner runner) {
+        if (phaseCount++ > 0)
+            releaseUnits(runner);
+
+        activeCount = 0;
+        for (int i = 0; i < m; ++i) {
+            if (unassigned.get(i) > 0)
+                activeSources[activeCount++] = i;
+        }
+        while (unassignedUnits.get() > 0) {
+            ++roundCount;
+            // the tail of a phase often has a handful of bidders, for which a parallel round costs more than it does
+            chunks = (long) activeCount * n < MIN_PARALLEL_CELLS ? 1 : numThreads;
+            runner.run(chunks, bidTask);
+            runner.run(chunks, resolveTask);
+            runner.run(chunks, takeTask);
+            runner.run(chunks, sortTask);
+            collectActiveSources();
+        }
+    }
+
+    private final IntConsumer bidTask = t -> {
+        for (int k = activeChunkStart(t); k < activeChunkStart(t + 1); ++k)
+            placeBids(activeSources[k], t);
+    };
+
+    private final IntConsumer resolveTask = t -> {
+        for (int k = activeChunkStart(t); k < activeChunkStart(t + 1); ++k)
+            resolveTies(activeSources[k]);
+    };
+
+    private final IntConsumer takeTask = t -> {
+        displacedCount[t] = 0;
+        touchedCount[t] = 0;
+        int newlyAssigned = 0;
+        for (int k = activeChunkStart(t); k < activeChunkStart(t + 1); ++k)
+            newlyAssigned += takeWonUnits(activeSources[k], t);
+        unassignedUnits.addAndGet(-newlyAssigned);
+    };
+
+    // each chunk sorts the ladders of the destinations it touched, which no other chunk touched in this round
+    private final IntConsumer sortTask = t -> {
+        for (int k = 0; k < touchedCount[t]; ++k)
+            sortLadder(touchedSinks[t][k], t);
+    };
+
+    private int activeChunkStart(int t) {
+        return ChunkRunner.chunkStart(0, activeCount, t, chunks);
+    }
+
+    // Bidders with units left and displaced sources bid in the next round
+    private void collectActiveSources() {
+        int count = 0;
+        for (int t = 0; t < chunks; ++t) {
+            System.arraycopy(displacedSources[t], 0, nextActiveSources, count, displacedCount[t]);
+            count += displacedCount[t];
+        }
+        for (int k = 0; k < activeCount; ++k) {
+            int i = activeSources[k];
+            if (unassigned.get(i) > 0 && sourceStamp.getAndSet(i, roundCount) != roundCount)
+                nextActiveSources[count++] = i;
+        }
+
+        int[] swap = activeSources;
+        activeSources = nextActiveSources;
+        nextActiveSources = swap;
+        activeCount = count;
+    }
+
+    // Unassigns every unit whose cost plus price is more than epsilon above the cheapest unit of its source, found
+    // from the ladders sorted after the last round
+    protected void releaseUnits(ChunkRunner runner) {
+        runner.run(numThreads, t -> {
+            for (int i = ChunkRunner.chunkStart(0, m, t, numThreads); i < ChunkRunner.chunkStart(0, m, t + 1, numThreads); ++i) {
+                long best = Long.MAX_VALUE;
+                for (int j = 0; j < n; ++j) {
+                    if (objectStart[j] < objectStart[j + 1])
+                        best = Math.min(best, problem.cost[i][j] * scale + ladderPrice[objectStart[j]]);
+                }
+                bestTotal[i] = best;
+            }
+        });
+        runner.run(numThreads, t -> {
+            int released = 0;
+            for (int o = ChunkRunner.chunkStart(0, units, t, numThreads); o < ChunkRunner.chunkStart(0, units, t + 1, numThreads); ++o) {
+                int i = owner[o];
+                if (problem.cost[i][objectSink[o]] * scale + price.get(o) > bestTotal[i] + epsilon) {
+                    owner[o] = NONE;
+                    unassigned.incrementAndGet(i);
+                    ++released;
+                }
+            }
+            unassignedUnits.addAndGet(released);
+        });
+    }
+
+    // A source with k unassigned units takes the k units with the lowest scaled cost plus price and bids for each
+    // of them what makes it exactly epsilon worse than the next best unit
+    protected void placeBids(int i, int t) {
+        int k = unassigned.get(i);
+        bidCount[i] = k;
+        if (k == 0)
+            return;
+
+        int[] objects = heapObject[t];
+        long[] keys = heapKey[t];
+        int size = k < CANDIDATES ? selectFromCandidates(i, k + 1, objects, keys) : NONE;
+        if (size == NONE)
+            size = selectCheapestUnits(i, k + 1, objects, keys);
+        // with no unit left to compare to, any bid above the price keeps the units epsilon-optimal
+        long nextTotal = keys[0];
+        if (size == k + 1)
+            removeTop(objects, keys, size--);
+
+        int first = bidStart[i];
+        for (int b = 0; b < k; ++b) {
+            int o = objects[b];
+            long bid = nextTotal + epsilon - problem.cost[i][objectSink[o]] * scale;
+            bidObject[first + b] = o;
+            bidPrice[first + b] = bid;
+            long current = price.get(o);
+            while (bid > current && !price.compareAndSet(o, current, bid))
+                current = price.get(o);
+        }
+    }
+
+    // Picks the count cheapest units among the remembered ones, which is enough as long as the last of them costs no
+    // more than the bound. Otherwise rescans all destinations once to refresh the candidates. Returns NONE if the
+    // candidates still do not suffice because other threads have bid them up in the meantime.
+    private int selectFromCandidates(int i, int count, int[] objects, long[] keys) {
+        int size = selectCheapestCandidates(i, count, objects, keys);
+        if (size == count && keys[0] <= candidateBound[i])
+            return size;
+
+        size = selectCheapestUnits(i, CANDIDATES + 1, objects, keys);
+        candidateBound[i] = size == CANDIDATES + 1 ? keys[0] : Long.MAX_VALUE;
+        if (size == CANDIDATES + 1)
+            removeTop(objects, keys, size--);
+        System.arraycopy(objects, 0, candidates[i], 0, size);
+        candidateCount[i] = size;
+
+        size = selectCheapestCandidates(i, count, objects, keys);
+        return size == count && keys[0] <= candidateBound[i] ? size : NONE;
+    }
+
+    private int selectCheapestCandidates(int i, int count, int[] objects, long[] keys) {
+        int[] costRow = problem.cost[i], sourceCandidates = candidates[i];
+        int size = 0;
+        for (int c = 0; c < candidateCount[i]; ++c) {
+            int o = sourceCandidates[c];
+            size = offer(objects, keys, size, count, o, costRow[objectSink[o]] * scale + price.get(o));
+        }
+        return size;
+    }
+
+    // Collects the count units with the lowest scaled cost plus price in a max-heap and returns its size. Units of a
+    // destination are sorted by their last known prices, so its scan stops at the first unit whose lower bound does
+    // not beat the heap's maximum, which after the first few destinations is usually its cheapest one.
+    private int selectCheapestUnits(int i, int count, int[] objects, long[] keys) {
+        int[] costRow = problem.cost[i];
+        int size = 0;
+        for (int j = 0; j < n; ++j) {
+            long cost = costRow[j] * scale;
+            for (int position = objectStart[j]; position < objectStart[j + 1]; ++position) {
+                if (size == count && cost + ladderPrice[position] >= keys[0])
+                    break;
+                int o = ladder[position];
+                size = offer(objects, keys, size, count, o, cost + price.get(o));
+            }
+        }
+        return size;
+    }
+
+    // Adds a unit to a max-heap that keeps the count lowest totals and returns the new size
+    private static int offer(int[] objects, long[] keys, int size, int count, int o, long total) {
+        if (size < count) {
+            objects[size] = o;
+            keys[size] = total;
+            siftUp(objects, keys, size);
+            return size + 1;
+        }
+        if (total < keys[0]) {
+            objects[0] = o;
+            keys[0] = total;
+            siftDown(objects, keys, size, 0);
+        }
+        return size;
+    }
+
+    private static void removeTop(int[] objects, long[] keys, int size) {
+        objects[0] = objects[size - 1];
+        keys[0] = keys[size - 1];
+        siftDown(objects, keys, size - 1, 0);
+    }
+
+    private static void siftUp(int[] objects, long[] keys, int slot) {
+        int object = objects[slot];
+        long key = keys[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) / 2;
+            if (keys[parent] >= key)
+                break;
+            objects[slot] = objects[parent];
+            keys[slot] = keys[parent];
+            slot = parent;
+        }
+        objects[slot] = object;
+        keys[slot] = key;
+    }
+
+    private static void siftDown(int[] objects, long[] keys, int size, int slot) {
+        int object = objects[slot];
+        long key = keys[slot];
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= size)
+                break;
+            if (child + 1 < size && keys[child + 1] > keys[child])
+                ++child;
+            if (keys[child] <= key)
+                break;
+            objects[slot] = objects[child];
+            keys[slot] = keys[child];
+            slot = child;
+        }
+        objects[slot] = object;
+        keys[slot] = key;
+    }
+
+    // Of the bids that set the final price of a unit, the one of the lowest source wins
+    protected void resolveTies(int i) {
+        for (int b = bidStart[i]; b < bidStart[i] + bidCount[i]; ++b) {
+            int o = bidObject[b];
+            if (price.get(o) != bidPrice[b])
+                continue;
+            int current = winner.get(o);
+            while (i < current && !winner.compareAndSet(o, current, i))
+                current = winner.get(o);
+        }
+    }
+
+    // Returns the number of won units that had no owner before
+    protected int takeWonUnits(int i, int t) {
+        int won = 0, newlyAssigned = 0;
+        for (int b = bidStart[i]; b < bidStart[i] + bidCount[i]; ++b) {
+            int o = bidObject[b];
+            if (winner.get(o) != i)
+                continue;
+            winner.set(o, NO_WINNER);
+            int previousOwner = owner[o];
+            owner[o] = i;
+            if (previousOwner == NONE)
+                ++newlyAssigned;
+            else {
+                unassigned.incrementAndGet(previousOwner);
+                if (sourceStamp.getAndSet(previousOwner, roundCount) != roundCount)
+                    displacedSources[t][displacedCount[t]++] = previousOwner;
+            }
+            int j = objectSink[o];
+            if (sinkStamp.getAndSet(j, roundCount) != roundCount)
+                touchedSinks[t][touchedCount[t]++] = j;
+            ++won;
+        }
+        if (won > 0)
+            unassigned.addAndGet(i, -won);
+        return newlyAssigned;
+    }
+
+    // Prices only rise, so the ladder of a destination is re-sorted after its units were bid up. A few raised units
+    // are moved right into place; the many units that change in the first rounds of a phase are merge sorted.
+    protected void sortLadder(int j, int t) {
+        int from = objectStart[j], to = objectStart[j + 1], raised = 0;
+        for (int position = from; position < to; ++position) {
+            long current = price.get(ladder[position]);
+            if (current != ladderPrice[position]) {
+                ladderPrice[position] = current;
+                ++raised;
+            }
+        }
+        if (raised > MAX_INSERTIONS) {
+            sortByPrice(from, to, sortBuffer[t], sortKeyBuffer[t]);
+            return;
+        }
+
+        for (int position = to - 2; position >= from; --position) {
+            int o = ladder[position], target = position;
+            long key = ladderPrice[position];
+            for (; target + 1 < to && ladderPrice[target + 1] < key; ++target) {
+                ladder[target] = ladder[target + 1];
+                ladderPrice[target] = ladderPrice[target + 1];
+            }
+            ladder[target] = o;
+            ladderPrice[target] = key;
+        }
+    }
+
+    // Merge sort of ladder[from..to) by ladderPrice, skipping merges of halves that are already in order
+    private void sortByPrice(int from, int to, int[] buffer, long[] keyBuffer) {
+        if (to - from < 2)
+            return;
+        int middle = (from + to) >>> 1;
+        sortByPrice(from, middle, buffer, keyBuffer);
+        sortByPrice(middle, to, buffer, keyBuffer);
+        if (ladderPrice[middle - 1] <= ladderPrice[middle])
+            return;
+
+        int length = middle - from;
+        System.arraycopy(ladder, from, buffer, 0, length);
+        System.arraycopy(ladderPrice, from, keyBuffer, 0, length);
+        int left = 0, right = middle, target = from;
+        while (left < length && right < to) {
+            if (keyBuffer[left] <= ladderPrice[right]) {
+                ladder[target] = buffer[left];
+                ladderPrice[target++] = keyBuffer[left++];
+            } else {
+                ladder[target] = ladder[right];
+                ladderPrice[target++] = ladderPrice[right++];
+            }
+        }
+        while (left < length) {
+            ladder[target] = buffer[left];
+            ladderPrice[target++] = keyBuffer[left++];
+        }
+    }
+
+    @Override
+    public int[][] getAllocation() {
+        return allocation;
+    }
+
+    @Override
+    public long getCost() {
+        long totalCost = 0;
+        for (int i = 0; i < m; ++i) {
+            for (int j = 0; j < n; ++j)
+                totalCost += (long) allocation[i][j] * problem.cost[i][j];
+        }
+        return totalCost;
+    }
+
+    public int getPhaseCount() {
+        return phaseCount;
+    }
+
+    public int getRoundCount() {
+        return roundCount;
+    }
+}
@@ -0,0 +1,27 @@
+package org.example;
+
+// Snapshot of the m + n - 1 basic cells of a solved problem. A later solve of a problem of the same size can start
+// from it instead of from an initial basis method.
+public class Basis {
+    final int m, n;
+    final int[] rows, cols;
+
+    Basis(int m, int n, int[] rows, int[] cols) {
+        this.m = m;
+        this.n = n;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    public int getRow(int k) {
+        return rows[k];
+    }
+
+    public int getColumn(int k) {
+        return cols[k];
+    }
+}
@@ -0,0 +1,266 @@
+package org.example;
+
+import java.util.Arrays;
+
+// Basic cells of a transportation basis kept as a spanning tree over m row nodes (0..m-1) and n column nodes (m..m+n-1).
+// Every basic cell (i, j) is an edge between row node i and column node m + j. The tree is rooted at row node 0.
+class BasisTree {
+    static final int NONE = -1;
+
+    final int m, n, nodeCount;
+    final int[] edgeRow, edgeCol;
+    final int[] parent, parentEdge, depth;
+    final int[] order;
+    final int[] cycle;
+    private final int[] cycleTail;
+    private final int[] head, next, prev;
+    private final int[] freeEdges;
+    private int freeCount, edgeCount;
+
+    BasisTree(int m, int n) {
+        this(m, n, null);
+    }
+
+    // Takes over the arrays of a spare tree that has room for m + n nodes; all loops run up to nodeCount, so the
+    // arrays may be longer than needed
+    BasisTree(int m, int n, BasisTree spare) {
+        this.m = m;
+        this.n = n;
+        this.nodeCount = m + n;
+
+        if (spare != null && spare.parent.length >= nodeCount) {
+            this.edgeRow = spare.edgeRow;
+            this.edgeCol = spare.edgeCol;
+            this.next = spare.next;
+            this.prev = spare.prev;
+            this.head = spare.head;
+            this.parent = spare.parent;
+            this.parentEdge = spare.parentEdge;
+            this.depth = spare.depth;
+            this.order = spare.order;
+            this.cycle = spare.cycle;
+            this.cycleTail = spare.cycleTail;
+            this.freeEdges = spare.freeEdges;
+            clear();
+            return;
+        }
+
+        // m + n - 1 basic cells plus one slot for the entering cell during a pivot
+        int capacity = nodeCount;
+        this.edgeRow = new int[capacity];
+        this.edgeCol = new int[capacity];
+        this.next = new int[2 * capacity];
+        this.prev = new int[2 * capacity];
+        this.head = new int[nodeCount];
+        this.parent = new int[nodeCount];
+        this.parentEdge = new int[nodeCount];
+        this.depth = new int[nodeCount];
+        this.order = new int[nodeCount];
+        this.cycle = new int[nodeCount];
+        this.cycleTail = new int[nodeCount];
+        this.freeEdges = new int[capacity];
+        clear();
+    }
+
+    void clear() {
+        Arrays.fill(head, NONE);
+        for (int e = 0; e < freeEdges.length; ++e)
+            freeEdges[e] = freeEdges.length - 1 - e;
+        freeCount = freeEdges.length;
+        edgeCount = 0;
+    }
+
+    int size() {
+        return edgeCount;
+    }
+
+    int addEdge(int i, int j) {
+        if (freeCount == 0)
+            throw new RuntimeException("Basis tree is full");
+
+        int e = freeEdges[--freeCount];
+        edgeRow[e] = i;
+        edgeCol[e] = j;
+        link(i, 2 * e);
+        link(m + j, 2 * e + 1);
+        ++edgeCount;
+        return e;
+    }
+
+    void removeEdge(int e) {
+        unlink(edgeRow[e], 2 * e);
+        unlink(m + edgeCol[e], 2 * e + 1);
+        freeEdges[freeCount++] = e;
+        --edgeCount;
+    }
+
+    int findEdge(int i, int j) {
+        for (int h = head[i]; h != NONE; h = next[h]) {
+            if (edgeCol[h >> 1] == j)
+                return h >> 1;
+        }
+        return NONE;
+    }
+
+    // Writes the edges at a node to out[0..count) and returns count
+    int incidentEdges(int node, int[] out) {
+        int count = 0;
+        for (int h = head[node]; h != NONE; h = next[h])
+            out[count++] = h >> 1;
+        return count;
+    }
+
+    boolean isRow(int node) {
+        return node < m;
+    }
+
+    // Node at the other end of an edge seen from the given node
+    int opposite(int e, int node) {
+        return node < m ? m + edgeCol[e] : edgeRow[e];
+    }
+
+    // Breadth-first labelling of the whole tree from the root. Fills order, parent, parentEdge and depth and
+    // returns the number of reached nodes (nodeCount for a spanning tree).
+    int traverse() {
+        return labelComponent(0);
+    }
+
+    // Same labelling from any node of a forest that is still being built; reaches only the node's own component
+    int labelComponent(int node) {
+        parent[node] = NONE;
+        parentEdge[node] = NONE;
+        depth[node] = 0;
+        order[0] = node;
+        return label(0, 1);
+    }
+
+    // Path between two nodes of a forest, written to cycle[0..length) from the edge at node `from` to the edge at
+    // node `to`, or NONE if they are not connected. Overwrites the labels, so the tree has to be traversed again.
+    int findPath(int from, int to) {
+        int count = labelComponent(from);
+        boolean isReached = false;
+        for (int k = 0; k < count && !isReached; ++k)
+            isReached = order[k] == to;
+        if (!isReached)
+            return NONE;
+
+        int length = 0;
+        for (int node = to; node != from; node = parent[node])
+            cycle[length++] = parentEdge[node];
+        for (int a = 0, b = length - 1; a < b; ++a, --b) {
+            int e = cycle[a];
+            cycle[a] = cycle[b];
+            cycle[b] = e;
+        }
+        return length;
+    }
+
+    // Swaps the leaving edge for the entering cell (i, j) and re-labels only the subtree that was cut off.
+    // The relabelled nodes are written to order[0..count) in breadth-first order, each after its new parent.
+    int pivot(int i, int j, int leavingEdge) {
+        reattach(i, j, leavingEdge);
+        return label(0, 1);
+    }
+
+    // Structural part of a pivot: swaps the edges and hangs the cut-off subtree on the entering edge.
+    // Its root, the only relabelled node so far, is written to order[0] and returned.
+    int reattach(int i, int j, int leavingEdge) {
+        int leavingRow = edgeRow[leavingEdge], leavingCol = m + edgeCol[leavingEdge];
+        int cutRoot = parent[leavingCol] == leavingRow ? leavingCol : leavingRow;
+
+        removeEdge(leavingEdge);
+        int enteringEdge = addEdge(i, j);
+
+        int subtreeNode = isInSubtree(i, cutRoot) ? i : m + j;
+        int attachNode = opposite(enteringEdge, subtreeNode);
+
+        parent[subtreeNode] = attachNode;
+        parentEdge[subtreeNode] = enteringEdge;
+        depth[subtreeNode] = depth[attachNode] + 1;
+        order[0] = subtreeNode;
+        return subtreeNode;
+    }
+
+    // Labels the children of an already labelled node and appends them to out[count..]. Returns the new count.
+    // Children of different nodes are disjoint, so nodes of one level can be expanded concurrently.
+    int expand(int node, int[] out, int count) {
+        for (int h = head[node]; h != NONE; h = next[h]) {
+            int e = h >> 1;
+            if (e == parentEdge[node])
+                continue;
+
+            int child = opposite(e, node);
+            parent[child] = node;
+            parentEdge[child] = e;
+            depth[child] = depth[node] + 1;
+            out[count++] = child;
+        }
+        return count;
+    }
+
+    // Writes the nodes of the subtree below root to out[0..count) in breadth-first order without relabelling them
+    int collectSubtree(int root, int[] out) {
+        out[0] = root;
+        int count = 1;
+        for (int k = 0; k < count; ++k) {
+            int node = out[k];
+            for (int h = head[node]; h != NONE; h = next[h]) {
+                if (h >> 1 != parentEdge[node])
+                    out[count++] = opposite(h >> 1, node);
+            }
+        }
+        return count;
+    }
+
+    // Tree path closing the cycle of the entering cell (i, j): walks from row node i and column node m + j up to
+    // their lowest common ancestor. Edges are written to cycle[0..length) from the one at row i to the one at
+    // column j, so cycle[k] gets the negative sign for even k.
+    int findCycle(int i, int j) {
+        int a = i, b = m + j;
+        int headLength = 0, tailLength = 0;
+
+        while (a != b) {
+            if (depth[a] >= depth[b]) {
+                cycle[headLength++] = parentEdge[a];
+                a = parent[a];
+            } else {
+                cycleTail[tailLength++] = parentEdge[b];
+                b = parent[b];
+            }
+        }
+
+        for (int k = tailLength - 1; k >= 0; --k)
+            cycle[headLength++] = cycleTail[k];
+        return headLength;
+    }
+
+    private boolean isInSubtree(int node, int subtreeRoot) {
+        int targetDepth = depth[subtreeRoot];
+        while (depth[node] > targetDepth)
+            node = parent[node];
+        return node == subtreeRoot;
+    }
+
+    private int label(int from, int count) {
+        for (int k = from; k < count; ++k)
+            count = expand(order[k], order, count);
+        return count;
+    }
+
+    private void link(int node, int h) {
+        next[h] = head[node];
+        prev[h] = NONE;
+        if (head[node] != NONE)
+            prev[head[node]] = h;
+        head[node] = h;
+    }
+
+    private void unlink(int node, int h) {
+        if (prev[h] != NONE)
+            next[prev[h]] = next[h];
+        else
+            head[node] = next[h];
+        if (next[h] != NONE)
+            prev[next[h]] = prev[h];
+    }
+}
@@ -0,0 +1,35 @@
+package org.example;
+
+import java.util.List;
+
+public class BatchReport {
+    final List<BatchResult> results;
+    final long elapsedNanos;
+
+    BatchReport(List<BatchResult> results, long elapsedNanos) {
+        this.results = results;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // Results in the order the problems were submitted
+    public List<BatchResult> getResults() {
+        return results;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getProblemsPerSecond() {
+        return results.size() * 1e9 / elapsedNanos;
+    }
+
+    public int getFailureCount() {
+        int failures = 0;
+        for (BatchResult result : results) {
+            if (!result.isSolved())
+                ++failures;
+        }
+        return failures;
+    }
+}
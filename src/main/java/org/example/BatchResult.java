@@ -0,0 +1,49 @@
+package org.example;
+
+public class BatchResult {
+    final int index;
+    final long cost;
+    final SparseAllocation allocation;
+    final int pivots;
+    final long solveNanos;
+    final RuntimeException error;
+
+    BatchResult(int index, long cost, SparseAllocation allocation, int pivots, long solveNanos, RuntimeException error) {
+        this.index = index;
+        this.cost = cost;
+        this.allocation = allocation;
+        this.pivots = pivots;
+        this.solveNanos = solveNanos;
+        this.error = error;
+    }
+
+    // Position of the problem in the submitted stream
+    public int getIndex() {
+        return index;
+    }
+
+    public long getCost() {
+        return cost;
+    }
+
+    public SparseAllocation getAllocation() {
+        return allocation;
+    }
+
+    public int getPivotCount() {
+        return pivots;
+    }
+
+    public long getSolveNanos() {
+        return solveNanos;
+    }
+
+    public boolean isSolved() {
+        return error == null;
+    }
+
+    // Why the problem could not be solved, null if it was
+    public RuntimeException getError() {
+        return error;
+    }
+}
@@ -0,0 +1,89 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Solves many independent problems concurrently, one sequential solver per problem, on a shared executor that is
+// never shut down here. The default is the common fork/join pool, whose work stealing keeps threads busy when
+// problem sizes vary; a virtual thread per task executor works as well. At most parallelism problems are solved at
+// once, and each of them borrows a workspace from a pool, so buffers are reused across problems instead of
+// allocated per solve.
+public class BatchSolver {
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final ConcurrentLinkedQueue<SolverWorkspace> workspaces = new ConcurrentLinkedQueue<>();
+
+    public BatchSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public BatchSolver(ExecutorService executor) {
+        this(executor, ChunkRunner.defaultParallelism(executor));
+    }
+
+    public BatchSolver(ExecutorService executor, int parallelism) {
+        if (parallelism <= 0)
+            throw new RuntimeException("Number of threads must be positive");
+        this.executor = executor;
+        this.permits = new Semaphore(parallelism);
+    }
+
+    public BatchReport solveAll(Stream<TransportationProblem> problems) {
+        return solveAll(problems, null);
+    }
+
+    // onSolved, if given, is called on the solving threads as soon as each problem is done. The report lists the
+    // results in the order of the stream either way.
+    public BatchReport solveAll(Stream<TransportationProblem> problems, Consumer<BatchResult> onSolved) {
+        long startTime = System.nanoTime();
+        // plain submit rather than CompletableFuture, which swaps a single-threaded common pool for a thread per task
+        List<Future<BatchResult>> futures = new ArrayList<>();
+        problems.forEachOrdered(problem -> {
+            int index = futures.size();
+            futures.add(executor.submit(() -> solve(index, problem, onSolved)));
+        });
+
+        List<BatchResult> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<BatchResult> future : futures)
+                results.add(future.get());
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("Batch solve was interrupted", e);
+        }
+        return new BatchReport(results, System.nanoTime() - startTime);
+    }
+
+    private BatchResult solve(int index, TransportationProblem problem, Consumer<BatchResult> onSolved) {
+        permits.acquireUninterruptibly();
+        SolverWorkspace workspace = workspaces.poll();
+        if (workspace == null)
+            workspace = new SolverWorkspace();
+
+        BatchResult result;
+        long startTime = System.nanoTime();
+        try {
+            TransportationProblemSolver solver = new TransportationProblemSolver(problem, workspace);
+            solver.solve();
+            result = new BatchResult(index, solver.getCost(), solver.getSparseAllocation(), solver.getPivotCount(),
+                    System.nanoTime() - startTime, null);
+        } catch (RuntimeException e) {
+            // a broken problem fails on its own and does not take the rest of the batch down
+            result = new BatchResult(index, 0, null, 0, System.nanoTime() - startTime, e);
+        } finally {
+            workspaces.add(workspace);
+            permits.release();
+        }
+
+        if (onSolved != null)
+            onSolved.accept(result);
+        return result;
+    }
+}
@@ -0,0 +1,114 @@
+package org.example;
+
+// Keeps the best improving cell of the most promising rows and picks entering cells from that list only.
+// The list is rebuilt with a full pass every refreshInterval pivots or when it runs out of improving cells.
+public class CandidateListPricing implements PricingStrategy {
+    private final int listSize, refreshInterval;
+    private final int[] candidateRows, candidateCols, candidateDeltas;
+    private int candidateCount, pivotsSinceRefresh;
+
+    public CandidateListPricing(int listSize, int refreshInterval) {
+        if (listSize <= 0 || refreshInterval <= 0)
+            throw new RuntimeException("List size and refresh interval must be positive");
+        this.listSize = listSize;
+        this.refreshInterval = refreshInterval;
+        this.candidateRows = new int[listSize];
+        this.candidateCols = new int[listSize];
+        this.candidateDeltas = new int[listSize];
+    }
+
+    @Override
+    public boolean selectEnteringCell(PricingContext context) {
+        if (pivotsSinceRefresh < refreshInterval && selectFromList(context))
+            return true;
+
+        refresh(context);
+        return selectFromList(context);
+    }
+
+    @Override
+    public void reset() {
+        candidateCount = 0;
+        pivotsSinceRefresh = refreshInterval;
+    }
+
+    private boolean selectFromList(PricingContext context) {
+        int best = -1, minDelta = 0;
+        for (int k = 0; k < candidateCount; ++k) {
+            int i = candidateRows[k], j = candidateCols[k];
+            if (context.isBasic(i, j))
+                continue;
+
+            int delta = context.reducedCost(i, j);
+            if (delta < minDelta) {
+                minDelta = delta;
+                best = k;
+            }
+        }
+
+        if (best == -1)
+            return false;
+
+        context.setEnteringCell(candidateRows[best], candidateCols[best]);
+        ++pivotsSinceRefresh;
+        return true;
+    }
+
+    // Keeps the listSize most negative row minima in a max-heap ordered by reduced cost
+    private void refresh(PricingContext context) {
+        candidateCount = 0;
+        pivotsSinceRefresh = 0;
+
+        for (int i = 0; i < context.rowCount(); ++i) {
+            int delta = context.priceRows(i, i + 1);
+            if (delta >= 0)
+                continue;
+
+            if (candidateCount < listSize) {
+                candidateRows[candidateCount] = i;
+                candidateDeltas[candidateCount] = delta;
+                candidateCols[candidateCount] = context.enteringColumn();
+                siftUp(candidateCount++);
+            } else if (delta < candidateDeltas[0]) {
+                candidateRows[0] = i;
+                candidateDeltas[0] = delta;
+                candidateCols[0] = context.enteringColumn();
+                siftDown(0);
+            }
+        }
+    }
+
+    private void siftUp(int k) {
+        while (k > 0) {
+            int parent = (k - 1) / 2;
+            if (candidateDeltas[parent] >= candidateDeltas[k])
+                return;
+            swap(k, parent);
+            k = parent;
+        }
+    }
+
+    private void siftDown(int k) {
+        while (true) {
+            int largest = k, left = 2 * k + 1, right = left + 1;
+            if (left < candidateCount && candidateDeltas[left] > candidateDeltas[largest])
+                largest = left;
+            if (right < candidateCount && candidateDeltas[right] > candidateDeltas[largest])
+                largest = right;
+            if (largest == k)
+                return;
+            swap(k, largest);
+            k = largest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int row = candidateRows[a], col = candidateCols[a], delta = candidateDeltas[a];
+        candidateRows[a] = candidateRows[b];
+        candidateCols[a] = candidateCols[b];
+        candidateDeltas[a] = candidateDeltas[b];
+        candidateRows[b] = row;
+        candidateCols[b] = col;
+        candidateDeltas[b] = delta;
+    }
+}
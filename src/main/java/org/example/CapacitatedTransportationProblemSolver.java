@@ -0,0 +1,399 @@
+package org.example;
+
+import java.util.Arrays;
+
+// Bounded-variable transportation simplex for cells with an upper bound. A non-basic cell sits either at 0 or at its
+// capacity, and one at capacity improves the solution when its reduced cost is positive, so pricing works on the
+// reduced cost signed by the direction the cell can move. The ratio test also stops at cells that would exceed their
+// capacity, including the entering cell itself, which then only moves to its other bound without a basis change.
+// Whatever the start cannot place within the capacities goes over an artificial column n, which takes leftover
+// supply, and an artificial row m, which covers unmet demand, at a cost high enough that the pivots move all of it
+// onto real cells.
+public class CapacitatedTransportationProblemSolver implements PricingContext {
+    protected static final byte AT_ZERO = 0, AT_CAPACITY = 1, BASIC = 2;
+
+    protected final int m, n;
+    protected final int[][] cost;
+    protected final int[] supply, demand;
+    protected final CellCapacities capacities;
+    protected final long[] u, v;
+    protected final byte[][] state;
+    protected final BasisTree basis;
+    protected final long[] edgeAmount, edgeCapacity;
+    protected final long artificialCost;
+    protected int minI, minJ;
+    protected PricingStrategy pricingStrategy = new DantzigPricing();
+    protected int pivotCount, boundFlipCount;
+    protected long pricingTimeNanos;
+
+    public CapacitatedTransportationProblemSolver(TransportationProblem problem, CellCapacities capacities) {
+        this.m = problem.supply.length;
+        this.n = problem.demand.length;
+        this.cost = problem.cost;
+        this.supply = problem.supply;
+        this.demand = problem.demand;
+        this.capacities = capacities;
+        this.u = new long[m + 1];
+        this.v = new long[n + 1];
+        this.state = new byte[m][n];
+        this.basis = new BasisTree(m + 1, n + 1);
+        this.edgeAmount = new long[m + n + 2];
+        this.edgeCapacity = new long[m + n + 2];
+
+        long supplySum = 0, demandSum = 0;
+        for (int s : supply)
+            supplySum += s;
+        for (int d : demand)
+            demandSum += d;
+        if (supplySum != demandSum)
+            throw new RuntimeException("Supplies do not match demands");
+
+        // a unit moved off the artificial cells saves more than any path of real cells can cost
+        long maxCost = 0;
+        for (int[] costRow : cost) {
+            for (int c : costRow)
+                maxCost = Math.max(maxCost, Math.abs((long) c));
+        }
+        this.artificialCost = (m + n + 2) * (maxCost + 1);
+    }
+
+    public void solve() {
+        pivotCount = 0;
+        boundFlipCount = 0;
+        pricingTimeNanos = 0;
+        pricingStrategy.reset();
+
+        initialBasis();
+        labelPotentials(basis.traverse());
+        while (true) {
+            long startTime = System.nanoTime();
+            boolean isImproving = pricingStrategy.selectEnteringCell(this);
+            pricingTimeNanos += System.nanoTime() - startTime;
+            if (!isImproving)
+                break;
+
+            ++pivotCount;
+            pivot();
+        }
+
+        // the cell between the two artificial nodes ends up carrying the total, the others must be empty
+        for (int node = 1; node < basis.nodeCount; ++node) {
+            int e = basis.parentEdge[node], i = basis.edgeRow[e], j = basis.edgeCol[e];
+            if (isArtificial(i, j) && (i != m || j != n) && edgeAmount[e] > 0)
+                throw new RuntimeException("Supplies cannot be delivered within the cell capacities");
+        }
+    }
+
+    // Northwest corner that respects capacities. A cell that cannot take the smaller of the remaining supply and demand
+    // is filled up to its capacity and left non-basic, which closes its column (or its row in the last column), and
+    // whatever a closed row or column has left goes over an artificial cell. Zero artificial cells then connect the
+    // pieces into a spanning tree.
+    protected void initialBasis() {
+        basis.clear();
+        for (int i = 0; i < m; ++i)
+            Arrays.fill(state[i], AT_ZERO);
+
+        long total = 0, unmetDemand = 0;
+        for (int s : supply)
+            total += s;
+
+        int i = 0, j = 0;
+        long remainingSupply = supply[0], remainingDemand = demand[0];
+        while (true) {
+            long amount = Math.min(remainingSupply, remainingDemand), capacity = capacityOf(i, j);
+            boolean isCapped = amount > capacity;
+            if (isCapped) {
+                amount = capacity;
+                if (capacity > 0)
+                    state[i][j] = AT_CAPACITY;
+            } else
+                addBasicCell(i, j, amount);
+            remainingSupply -= amount;
+            remainingDemand -= amount;
+
+            if (i == m - 1 && j == n - 1)
+                break;
+            boolean isRowDone = isCapped ? j == n - 1 : j == n - 1 || (i < m - 1 && remainingSupply == 0 && remainingDemand > 0);
+            if (isRowDone) {
+                addArtificialCell(i, n, remainingSupply);
+                remainingSupply = supply[++i];
+            } else {
+                addArtificialCell(m, j, remainingDemand);
+                unmetDemand += remainingDemand;
+                remainingDemand = demand[++j];
+            }
+        }
+        addArtificialCell(m - 1, n, remainingSupply);
+        addArtificialCell(m, n - 1, remainingDemand);
+        unmetDemand += remainingDemand;
+        addArtificialCell(m, n, total - unmetDemand);
+
+        boolean[] isConnected = new boolean[basis.nodeCount];
+        markComponent(basis.m + n, isConnected);
+        for (int row = 0; row <= m; ++row) {
+            if (!isConnected[row]) {
+                addBasicCell(row, n, 0);
+                markComponent(row, isConnected);
+            }
+        }
+        for (int col = 0; col < n; ++col) {
+            if (!isConnected[basis.m + col]) {
+                addBasicCell(m, col, 0);
+                markComponent(basis.m + col, isConnected);
+            }
+        }
+    }
+
+    // Adds an artificial cell that carries a leftover amount. The artificial cells of different pieces of the
+    // northwest corner walk can close a cycle with them, which is then cancelled like a pivot with the new cell
+    // moving towards 0: either the new cell runs empty and is left out, or a cell of the cycle reaches a bound and
+    // makes room for it.
+    private void addArtificialCell(int i, int j, long amount) {
+        if (amount == 0)
+            return;
+
+        int length = basis.findPath(i, basis.m + j);
+        if (length == BasisTree.NONE) {
+            addBasicCell(i, j, amount);
+            return;
+        }
+
+        long step = amount;
+        int leaving = -1;
+        for (int k = 0; k < length; ++k) {
+            int e = basis.cycle[k];
+            long room = k % 2 == 0 ? edgeCapacity[e] - edgeAmount[e] : edgeAmount[e];
+            if (room < step) {
+                step = room;
+                leaving = k;
+            }
+        }
+
+        for (int k = 0; k < length; ++k)
+            edgeAmount[basis.cycle[k]] += k % 2 == 0 ? step : -step;
+        if (leaving == -1)
+            return;
+
+        int leavingEdge = basis.cycle[leaving];
+        int leavingI = basis.edgeRow[leavingEdge], leavingJ = basis.edgeCol[leavingEdge];
+        if (!isArtificial(leavingI, leavingJ))
+            state[leavingI][leavingJ] = edgeAmount[leavingEdge] == 0 ? AT_ZERO : AT_CAPACITY;
+        basis.removeEdge(leavingEdge);
+        addBasicCell(i, j, amount - step);
+    }
+
+    private void markComponent(int node, boolean[] isConnected) {
+        int count = basis.labelComponent(node);
+        for (int k = 0; k < count; ++k)
+            isConnected[basis.order[k]] = true;
+    }
+
+    private void addBasicCell(int i, int j, long amount) {
+        int e = basis.addEdge(i, j);
+        edgeAmount[e] = amount;
+        edgeCapacity[e] = capacityOf(i, j);
+        if (!isArtificial(i, j))
+            state[i][j] = BASIC;
+    }
+
+    protected boolean isArtificial(int i, int j) {
+        return i == m || j == n;
+    }
+
+    protected long capacityOf(int i, int j) {
+        if (isArtificial(i, j))
+            return Long.MAX_VALUE;
+
+        int capacity = capacities.capacity(i, j);
+        if (capacity < 0)
+            throw new RuntimeException("Capacity of cell (" + i + ", " + j + ") is negative");
+        return capacity;
+    }
+
+    protected long cost(int i, int j) {
+        if (i == m && j == n)
+            return 0;
+        return isArtificial(i, j) ? artificialCost : cost[i][j];
+    }
+
+    protected void labelPotentials(int count) {
+        for (int k = 0; k < count; ++k) {
+            int node = basis.order[k];
+            int e = basis.parentEdge[node];
+            if (e == BasisTree.NONE) {
+                u[node] = 0;
+                continue;
+            }
+
+            int i = basis.edgeRow[e], j = basis.edgeCol[e];
+            if (basis.isRow(node))
+                u[i] = cost(i, j) - v[j];
+            else
+                v[j] = cost(i, j) - u[i];
+        }
+    }
+
+    protected void pivot() {
+        int p = minI, q = minJ;
+        boolean increases = state[p][q] == AT_ZERO;
+        long enteringCapacity = capacityOf(p, q);
+        int length = basis.findCycle(p, q);
+
+        // the entering cell itself can move at most to its other bound
+        long amount = enteringCapacity;
+        int leaving = -1;
+        for (int k = 0; k < length; ++k) {
+            int e = basis.cycle[k];
+            long room = (k % 2 == 0) == increases ? edgeAmount[e] : edgeCapacity[e] - edgeAmount[e];
+            if (room < amount) {
+                amount = room;
+                leaving = k;
+            }
+        }
+
+        for (int k = 0; k < length; ++k)
+            edgeAmount[basis.cycle[k]] += (k % 2 == 0) == increases ? -amount : amount;
+
+        if (leaving == -1) {
+            state[p][q] = increases ? AT_CAPACITY : AT_ZERO;
+            ++boundFlipCount;
+            return;
+        }
+
+        int leavingEdge = basis.cycle[leaving];
+        int leavingI = basis.edgeRow[leavingEdge], leavingJ = basis.edgeCol[leavingEdge];
+        if (!isArtificial(leavingI, leavingJ))
+            state[leavingI][leavingJ] = edgeAmount[leavingEdge] == 0 ? AT_ZERO : AT_CAPACITY;
+
+        state[p][q] = BASIC;
+        int relabelled = basis.pivot(p, q, leavingEdge);
+        int enteringEdge = basis.parentEdge[basis.order[0]];
+        edgeAmount[enteringEdge] = increases ? amount : enteringCapacity - amount;
+        edgeCapacity[enteringEdge] = enteringCapacity;
+        labelPotentials(relabelled);
+    }
+
+    @Override
+    public int priceRows(int fromRow, int toRow) {
+        long minDelta = Long.MAX_VALUE;
+        for (int i = fromRow; i < toRow; ++i) {
+            int[] costRow = cost[i];
+            byte[] stateRow = state[i];
+            long ui = u[i];
+            for (int j = 0; j < n; ++j) {
+                if (stateRow[j] == BASIC)
+                    continue;
+
+                long delta = costRow[j] - (ui + v[j]);
+                if (stateRow[j] == AT_CAPACITY)
+                    delta = -delta;
+                if (delta < minDelta) {
+                    minDelta = delta;
+                    minI = i;
+                    minJ = j;
+                }
+            }
+        }
+        return saturate(minDelta);
+    }
+
+    @Override
+    public int findNegativeInRows(int fromRow, int toRow) {
+        for (int i = fromRow; i < toRow; ++i) {
+            for (int j = 0; j < n; ++j) {
+                if (state[i][j] != BASIC && reducedCost(i, j) < 0) {
+                    minI = i;
+                    minJ = j;
+                    return reducedCost(i, j);
+                }
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int rowCount() {
+        return m;
+    }
+
+    @Override
+    public int columnCount() {
+        return n;
+    }
+
+    @Override
+    public boolean isBasic(int i, int j) {
+        return state[i][j] == BASIC;
+    }
+
+    // Signed by the direction the cell can move: negative means improving for cells at 0 and at capacity alike
+    @Override
+    public int reducedCost(int i, int j) {
+        long delta = cost[i][j] - (u[i] + v[j]);
+        return saturate(state[i][j] == AT_CAPACITY ? -delta : delta);
+    }
+
+    @Override
+    public int enteringRow() {
+        return minI;
+    }
+
+    @Override
+    public int enteringColumn() {
+        return minJ;
+    }
+
+    @Override
+    public void setEnteringCell(int i, int j) {
+        minI = i;
+        minJ = j;
+    }
+
+    public void setPricingStrategy(PricingStrategy pricingStrategy) {
+        this.pricingStrategy = pricingStrategy;
+    }
+
+    public int getPivotCount() {
+        return pivotCount;
+    }
+
+    // Pivots in which the entering cell went straight to its other bound
+    public int getBoundFlipCount() {
+        return boundFlipCount;
+    }
+
+    public long getPricingTimeNanos() {
+        return pricingTimeNanos;
+    }
+
+    // Shipped amounts, 0 for empty cells
+    public int[][] getAllocation() {
+        int[][] allocation = new int[m][n];
+        for (int i = 0; i < m; ++i) {
+            for (int j = 0; j < n; ++j) {
+                if (state[i][j] == AT_CAPACITY)
+                    allocation[i][j] = capacities.capacity(i, j);
+            }
+        }
+        for (int node = 1; node < basis.nodeCount; ++node) {
+            int e = basis.parentEdge[node], i = basis.edgeRow[e], j = basis.edgeCol[e];
+            if (!isArtificial(i, j))
+                allocation[i][j] = (int) edgeAmount[e];
+        }
+        return allocation;
+    }
+
+    public long getCost() {
+        long totalCost = 0;
+        int[][] allocation = getAllocation();
+        for (int i = 0; i < m; ++i) {
+            for (int j = 0; j < n; ++j)
+                totalCost += (long) allocation[i][j] * cost[i][j];
+        }
+        return totalCost;
+    }
+
+    private static int saturate(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+}
@@ -0,0 +1,12 @@
+package org.example;
+
+// Upper bound on the amount shipped over each cell; UNLIMITED leaves a cell uncapacitated
+public interface CellCapacities {
+    int UNLIMITED = Integer.MAX_VALUE;
+
+    int capacity(int i, int j);
+
+    static CellCapacities dense(int[][] capacity) {
+        return (i, j) -> capacity[i][j];
+    }
+}
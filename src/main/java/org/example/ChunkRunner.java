@@ -0,0 +1,121 @@
+package org.example;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+// Runs chunks 0..chunks-1 of a body on a shared executor and returns once all of them are done.
+// A ForkJoinPool gets fork/join tasks; any other executor gets one task per chunk and a reusable phaser barrier,
+// with chunk 0 run on the calling thread. Not meant to be used by several threads at once.
+// The tasks are created on the first run with a given number of chunks and reused after that, so runs called once
+// per pivot create no garbage of their own; the executor's queues may still allocate.
+class ChunkRunner {
+    final ExecutorService executor;
+    final int parallelism;
+    private final Phaser phaser = new Phaser(1);
+    private volatile Throwable failure;
+    private IntConsumer body;
+    private ChunkAction rootAction;
+    private Runnable[] tasks;
+
+    ChunkRunner(ExecutorService executor, int parallelism) {
+        if (parallelism <= 0)
+            throw new RuntimeException("Number of threads must be positive");
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    static int defaultParallelism(ExecutorService executor) {
+        return executor instanceof ForkJoinPool pool ? pool.getParallelism() : Runtime.getRuntime().availableProcessors();
+    }
+
+    // First index of a chunk when [from, to) is split into chunks parts
+    static int chunkStart(int from, int to, int chunk, int chunks) {
+        return from + (int) ((long) (to - from) * chunk / chunks);
+    }
+
+    void run(int chunks, IntConsumer body) {
+        if (chunks == 1) {
+            body.accept(0);
+            return;
+        }
+
+        this.body = body;
+        try {
+            if (executor instanceof ForkJoinPool pool)
+                runForkJoin(pool, chunks);
+            else
+                runOnExecutor(chunks);
+        } finally {
+            this.body = null;
+        }
+    }
+
+    private void runForkJoin(ForkJoinPool pool, int chunks) {
+        if (rootAction == null || rootAction.to != chunks)
+            rootAction = new ChunkAction(0, chunks);
+        rootAction.reinitialize();
+        pool.invoke(rootAction);
+    }
+
+    private void runOnExecutor(int chunks) {
+        if (tasks == null || tasks.length < chunks) {
+            tasks = new Runnable[chunks];
+            for (int t = 1; t < chunks; ++t) {
+                final int chunk = t;
+                tasks[t] = () -> {
+                    try {
+                        body.accept(chunk);
+                    } catch (Throwable e) {
+                        failure = e;
+                    } finally {
+                        phaser.arriveAndDeregister();
+                    }
+                };
+            }
+        }
+
+        failure = null;
+        phaser.bulkRegister(chunks - 1);
+        for (int t = 1; t < chunks; ++t)
+            executor.execute(tasks[t]);
+
+        try {
+            body.accept(0);
+        } finally {
+            phaser.arriveAndAwaitAdvance();
+        }
+        if (failure != null)
+            throw new RuntimeException(failure);
+    }
+
+    // Splits [from, to) in halves down to single chunks; the children are built once and reset before every run.
+    // Tasks are never serialized.
+    @SuppressWarnings("serial")
+    private class ChunkAction extends RecursiveAction {
+        private final int from, to;
+        private final ChunkAction left, right;
+
+        ChunkAction(int from, int to) {
+            this.from = from;
+            this.to = to;
+            int middle = (from + to) >>> 1;
+            this.left = to - from == 1 ? null : new ChunkAction(from, middle);
+            this.right = to - from == 1 ? null : new ChunkAction(middle, to);
+        }
+
+        @Override
+        protected void compute() {
+            if (left == null) {
+                body.accept(from);
+                return;
+            }
+
+            left.reinitialize();
+            right.reinitialize();
+            invokeAll(left, right);
+        }
+    }
+}
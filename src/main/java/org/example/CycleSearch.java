@@ -0,0 +1,8 @@
+package org.example;
+
+public enum CycleSearch {
+    // Backtracking search over basic cells, alternating row and column moves
+    DEPTH_FIRST,
+    // Walk from the entering cell's row and column nodes up to their lowest common ancestor in the basis tree
+    SPANNING_TREE
+}
@@ -0,0 +1,9 @@
+package org.example;
+
+// Full pricing: the most negative reduced cost over all non-basic cells
+public class DantzigPricing implements PricingStrategy {
+    @Override
+    public boolean selectEnteringCell(PricingContext context) {
+        return context.priceRows(0, context.rowCount()) < 0;
+    }
+}
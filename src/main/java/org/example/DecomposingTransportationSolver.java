@@ -0,0 +1,284 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Splits a problem whose cells are mostly forbidden lanes into the connected components of the permitted lanes and
+// solves those blocks concurrently, each with the engine TransportationSolver.forProblem picks for it. No shipment
+// can cross from one block to another, so the optimal allocations of the blocks together are optimal for the whole
+// problem. Cells with a cost of at least forbiddenCost are forbidden; inside a block they cost a big-M that makes
+// shipping over them the last resort, so a block solution that still does proves the problem infeasible.
+public class DecomposingTransportationSolver implements TransportationSolver {
+    protected final TransportationProblem problem;
+    protected final int m, n, forbiddenCost;
+    protected final ExecutorService executor;
+    protected int[][] allocation;
+    protected long cost;
+    // rows and columns of block b are blockRows[blockRowStart[b]..blockRowStart[b + 1]) and likewise for columns
+    protected int[] blockRowStart, blockRows, blockColStart, blockCols;
+    protected long[] blockCost;
+    protected int blockCount;
+
+    public DecomposingTransportationSolver(TransportationProblem problem, int forbiddenCost) {
+        this(problem, forbiddenCost, ForkJoinPool.commonPool());
+    }
+
+    // The executor is shared and never shut down here
+    public DecomposingTransportationSolver(TransportationProblem problem, int forbiddenCost, ExecutorService executor) {
+        this.problem = problem;
+        this.m = problem.supply.length;
+        this.n = problem.demand.length;
+        this.forbiddenCost = forbiddenCost;
+        this.executor = executor;
+    }
+
+    @Override
+    public void solve() {
+        findBlocks();
+        allocation = new int[m][n];
+
+        // a block can only leave supply unshipped or demand unmet through the dummy node of an unbalanced problem,
+        // so every block has to be short on the same side as the whole problem, if at all
+        long imbalance = sum(problem.supply) - sum(problem.demand);
+        Integer[] order = new Integer[blockCount];
+        for (int b = 0; b < blockCount; ++b) {
+            long blockImbalance = blockImbalance(b);
+            if (blockImbalance != 0 && Long.signum(blockImbalance) != Long.signum(imbalance))
+                throw new RuntimeException("Supplies cannot be delivered over the permitted lanes");
+            order[b] = b;
+        }
+        // largest blocks first, so that a long solve does not start last
+        Arrays.sort(order, (a, b) -> Long.compare(blockCells(b), blockCells(a)));
+
+        blockCost = new long[blockCount];
+        List<Future<?>> futures = new ArrayList<>();
+        for (int b : order) {
+            if (blockCells(b) > 0)
+                futures.add(executor.submit(() -> solveBlock(b)));
+        }
+        try {
+            for (Future<?> future : futures)
+                future.get();
+        } catch (InterruptedException e) {
+            throw new RuntimeException("Block solve was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw new RuntimeException("Block solve failed", e.getCause());
+        }
+
+        cost = 0;
+        for (long c : blockCost)
+            cost += c;
+    }
+
+    // Union-find over row nodes 0..m-1 and column nodes m..m+n-1, joined by every permitted lane
+    protected void findBlocks() {
+        DisjointSets components = new DisjointSets(m + n);
+        for (int i = 0; i < m; ++i) {
+            int[] costRow = problem.cost[i];
+            for (int j = 0; j < n; ++j) {
+                if (costRow[j] < forbiddenCost)
+                    components.union(i, m + j);
+            }
+        }
+
+        int[] blockOfRoot = new int[m + n], blockOf = new int[m + n];
+        Arrays.fill(blockOfRoot, -1);
+        blockCount = 0;
+        for (int node = 0; node < m + n; ++node) {
+            int root = components.find(node);
+            if (blockOfRoot[root] == -1)
+                blockOfRoot[root] = blockCount++;
+            blockOf[node] = blockOfRoot[root];
+        }
+
+        blockRowStart = new int[blockCount + 1];
+        blockColStart = new int[blockCount + 1];
+        for (int i = 0; i < m; ++i)
+            ++blockRowStart[blockOf[i] + 1];
+        for (int j = 0; j < n; ++j)
+            ++blockColStart[blockOf[m + j] + 1];
+        for (int b = 0; b < blockCount; ++b) {
+            blockRowStart[b + 1] += blockRowStart[b];
+            blockColStart[b + 1] += blockColStart[b];
+        }
+
+        blockRows = new int[m];
+        blockCols = new int[n];
+        int[] nextRow = Arrays.copyOf(blockRowStart, blockCount), nextCol = Arrays.copyOf(blockColStart, blockCount);
+        for (int i = 0; i < m; ++i)
+            blockRows[nextRow[blockOf[i]]++] = i;
+        for (int j = 0; j < n; ++j)
+            blockCols[nextCol[blockOf[m + j]]++] = j;
+    }
+
+    // Blocks touch disjoint rows and columns, so they write to disjoint cells of the shared allocation. Forbidden
+    // cells get a real big-M in the block: a unit moved off them saves more than any path of permitted cells can
+    // cost, so an optimal block solution only ships over one if the permitted lanes cannot carry the supplies. When
+    // the potentials of that big-M would not fit the int arithmetic of the dense engines, the block is solved over
+    // its permitted lanes alone instead.
+    protected void solveBlock(int b) {
+        int rowStart = blockRowStart[b], rows = blockRowStart[b + 1] - rowStart;
+        int colStart = blockColStart[b], cols = blockColStart[b + 1] - colStart;
+
+        long maxCost = 0;
+        for (int r = 0; r < rows; ++r) {
+            int[] costRow = problem.cost[blockRows[rowStart + r]];
+            for (int c = 0; c < cols; ++c) {
+                int cost = costRow[blockCols[colStart + c]];
+                if (cost < forbiddenCost)
+                    maxCost = Math.max(maxCost, Math.abs((long) cost));
+            }
+        }
+        long bigM = (rows + cols + 2L) * (maxCost + 1);
+        if (2 * (rows + cols + 2L) * bigM > Integer.MAX_VALUE) {
+            solveLanes(b);
+            return;
+        }
+
+        int[][] costs = new int[rows][cols];
+        int[] supply = new int[rows], demand = new int[cols];
+        for (int r = 0; r < rows; ++r) {
+            int i = blockRows[rowStart + r];
+            supply[r] = problem.supply[i];
+            for (int c = 0; c < cols; ++c) {
+                int cost = problem.cost[i][blockCols[colStart + c]];
+                costs[r][c] = cost < forbiddenCost ? cost : (int) bigM;
+            }
+        }
+        for (int c = 0; c < cols; ++c)
+            demand[c] = problem.demand[blockCols[colStart + c]];
+
+        TransportationSolver solver = TransportationSolver.forProblem(new TransportationProblem(costs, supply, demand));
+        solver.solve();
+        int[][] blockAllocation = solver.getAllocation();
+        long total = 0;
+        for (int r = 0; r < rows; ++r) {
+            int i = blockRows[rowStart + r];
+            for (int c = 0; c < cols; ++c) {
+                int j = blockCols[colStart + c], amount = blockAllocation[r][c];
+                if (amount > 0 && problem.cost[i][j] >= forbiddenCost)
+                    throw new RuntimeException("Supplies cannot be delivered over the permitted lanes");
+                allocation[i][j] = amount;
+                total += (long) amount * problem.cost[i][j];
+            }
+        }
+        blockCost[b] = total;
+    }
+
+    // Solves a block over its permitted lanes with the sparse simplex, which keeps its potentials in longs. An
+    // unbalanced block gets a dummy row or column with free lanes to all of its columns or rows, which stands for
+    // the supply left over or the demand left unmet.
+    protected void solveLanes(int b) {
+        int rowStart = blockRowStart[b], rows = blockRowStart[b + 1] - rowStart;
+        int colStart = blockColStart[b], cols = blockColStart[b + 1] - colStart;
+        long imbalance = blockImbalance(b);
+        if (Math.abs(imbalance) > Integer.MAX_VALUE)
+            throw new RuntimeException("Difference between supplies and demands does not fit into an int");
+
+        int laneCount = imbalance > 0 ? rows : imbalance < 0 ? cols : 0;
+        for (int r = 0; r < rows; ++r) {
+            int[] costRow = problem.cost[blockRows[rowStart + r]];
+            for (int c = 0; c < cols; ++c) {
+                if (costRow[blockCols[colStart + c]] < forbiddenCost)
+                    ++laneCount;
+            }
+        }
+
+        int[] laneRows = new int[laneCount], laneCols = new int[laneCount], laneCosts = new int[laneCount];
+        int[] supply = new int[rows + (imbalance < 0 ? 1 : 0)], demand = new int[cols + (imbalance > 0 ? 1 : 0)];
+        int k = 0;
+        for (int r = 0; r < rows; ++r) {
+            int i = blockRows[rowStart + r];
+            supply[r] = problem.supply[i];
+            for (int c = 0; c < cols; ++c) {
+                int cost = problem.cost[i][blockCols[colStart + c]];
+                if (cost < forbiddenCost) {
+                    laneRows[k] = r;
+                    laneCols[k] = c;
+                    laneCosts[k++] = cost;
+                }
+            }
+            if (imbalance > 0) {
+                laneRows[k] = r;
+                laneCols[k++] = cols;
+            }
+        }
+        for (int c = 0; c < cols; ++c)
+            demand[c] = problem.demand[blockCols[colStart + c]];
+        if (imbalance > 0) {
+            demand[cols] = (int) imbalance;
+        } else if (imbalance < 0) {
+            supply[rows] = (int) -imbalance;
+            for (int c = 0; c < cols; ++c) {
+                laneRows[k] = rows;
+                laneCols[k++] = c;
+            }
+        }
+
+        // the sparse solver fails if the lanes cannot carry every supply
+        SparseTransportationProblemSolver solver = new SparseTransportationProblemSolver(
+                SparseTransportationProblem.fromLanes(laneRows, laneCols, laneCosts, supply, demand));
+        solver.solve();
+        SparseAllocation blockAllocation = solver.getAllocation();
+        long total = 0;
+        for (int e = 0; e < blockAllocation.size(); ++e) {
+            int r = blockAllocation.getRow(e), c = blockAllocation.getColumn(e);
+            if (r == rows || c == cols)
+                continue;
+
+            int i = blockRows[rowStart + r], j = blockCols[colStart + c];
+            allocation[i][j] = blockAllocation.getAmount(e);
+            total += (long) blockAllocation.getAmount(e) * problem.cost[i][j];
+        }
+        blockCost[b] = total;
+    }
+
+    protected long blockImbalance(int b) {
+        long imbalance = 0;
+        for (int k = blockRowStart[b]; k < blockRowStart[b + 1]; ++k)
+            imbalance += problem.supply[blockRows[k]];
+        for (int k = blockColStart[b]; k < blockColStart[b + 1]; ++k)
+            imbalance -= problem.demand[blockCols[k]];
+        return imbalance;
+    }
+
+    // A row or column without any permitted lane is a block of its own with no cells
+    protected long blockCells(int b) {
+        return (long) (blockRowStart[b + 1] - blockRowStart[b]) * (blockColStart[b + 1] - blockColStart[b]);
+    }
+
+    private static long sum(int[] amounts) {
+        long total = 0;
+        for (int amount : amounts)
+            total += amount;
+        return total;
+    }
+
+    @Override
+    public int[][] getAllocation() {
+        return allocation;
+    }
+
+    @Override
+    public long getCost() {
+        return cost;
+    }
+
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    public long getLargestBlockCells() {
+        long largest = 0;
+        for (int b = 0; b < blockCount; ++b)
+            largest = Math.max(largest, blockCells(b));
+        return largest;
+    }
+}
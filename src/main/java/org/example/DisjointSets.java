@@ -0,0 +1,38 @@
+package org.example;
+
+class DisjointSets {
+    private final int[] parent, rank;
+
+    DisjointSets(int size) {
+        this.parent = new int[size];
+        this.rank = new int[size];
+        for (int k = 0; k < size; ++k)
+            parent[k] = k;
+    }
+
+    int find(int k) {
+        while (parent[k] != k) {
+            parent[k] = parent[parent[k]];
+            k = parent[k];
+        }
+        return k;
+    }
+
+    // Returns false if both elements were already in the same set
+    boolean union(int a, int b) {
+        a = find(a);
+        b = find(b);
+        if (a == b)
+            return false;
+
+        if (rank[a] < rank[b]) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        parent[b] = a;
+        if (rank[a] == rank[b])
+            ++rank[a];
+        return true;
+    }
+}
@@ -0,0 +1,21 @@
+package org.example;
+
+// Takes the first improving cell, continuing the scan from the row where the previous one was found
+public class FirstNegativePricing implements PricingStrategy {
+    private int startRow;
+
+    @Override
+    public boolean selectEnteringCell(PricingContext context) {
+        int m = context.rowCount();
+        if (context.findNegativeInRows(startRow, m) < 0 || context.findNegativeInRows(0, startRow) < 0) {
+            startRow = context.enteringRow();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void reset() {
+        startRow = 0;
+    }
+}
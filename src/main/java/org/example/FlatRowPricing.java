@@ -0,0 +1,27 @@
+package org.example;
+
+// Reduced-cost scans over one row of a flat cost matrix: cell j of the row sits at rowCost[offset + j], and its
+// reduced cost is rowCost[offset + j] - ui - v[j]. Basic cells price at 0, so the scans need no basis flags.
+interface FlatRowPricing {
+    // Smallest reduced cost over columns [0, length), and never above 0
+    int rowMinimum(int[] rowCost, int offset, int ui, int[] v, int length);
+
+    // First column in [0, length) with the given reduced cost, or -1
+    int columnOf(int[] rowCost, int offset, int ui, int[] v, int length, int delta);
+
+    static FlatRowPricing scalar() {
+        return ScalarRowPricing.INSTANCE;
+    }
+
+    // The Vector API kernel when the JVM runs with --add-modules jdk.incubator.vector, the scalar one otherwise.
+    // The kernel class is only loaded once the module is known to be there.
+    static FlatRowPricing vector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+            return scalar();
+        try {
+            return (FlatRowPricing) Class.forName("org.example.VectorRowPricing").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return scalar();
+        }
+    }
+}
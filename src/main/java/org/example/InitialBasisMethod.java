@@ -0,0 +1,12 @@
+package org.example;
+
+// Builds a feasible starting allocation. Reported cells must not form a cycle; the solver completes them to a
+// spanning basis with zero cells if fewer than m + n - 1 are reported.
+public interface InitialBasisMethod {
+    interface BasicCells {
+        void add(int i, int j, int amount);
+    }
+
+    // supply and demand are working copies that the method may consume
+    void allocate(int[][] cost, int[] supply, int[] demand, BasicCells basicCells);
+}
@@ -0,0 +1,55 @@
+package org.example;
+
+// Exports solves as JFR events: one org.example.Solve duration event per solve with the per-phase times and,
+// if enabled, one org.example.Pivot event per pivot. Holds the state of one solve at a time.
+public class JfrSolverListener implements SolverListener {
+    private SolveEvent solveEvent;
+    private int degeneratePivots;
+
+    @Override
+    public void solveStarted(int m, int n) {
+        solveEvent = new SolveEvent();
+        solveEvent.rows = m;
+        solveEvent.columns = n;
+        degeneratePivots = 0;
+        solveEvent.begin();
+    }
+
+    @Override
+    public void phaseFinished(SolverPhase phase, long nanos) {
+        switch (phase) {
+            case INITIAL_BASIS -> solveEvent.initialBasisTime += nanos;
+            case POTENTIALS -> solveEvent.potentialsTime += nanos;
+            case PRICING -> solveEvent.pricingTime += nanos;
+            case CYCLE_SEARCH -> solveEvent.cycleSearchTime += nanos;
+            case ALLOCATION_UPDATE -> solveEvent.allocationUpdateTime += nanos;
+        }
+    }
+
+    @Override
+    public void pivotFinished(int pivot, int chainLength, int amount, long objective) {
+        if (amount == 0)
+            ++degeneratePivots;
+
+        PivotEvent pivotEvent = new PivotEvent();
+        if (pivotEvent.isEnabled()) {
+            pivotEvent.pivot = pivot;
+            pivotEvent.chainLength = chainLength;
+            pivotEvent.amount = amount;
+            pivotEvent.objective = objective;
+            pivotEvent.commit();
+        }
+    }
+
+    @Override
+    public void solveFinished(int pivots, long cost) {
+        solveEvent.end();
+        if (solveEvent.shouldCommit()) {
+            solveEvent.pivots = pivots;
+            solveEvent.degeneratePivots = degeneratePivots;
+            solveEvent.cost = cost;
+            solveEvent.commit();
+        }
+        solveEvent = null;
+    }
+}
@@ -0,0 +1,61 @@
+package org.example;
+
+// Repeatedly allocates to the cheapest cell whose row and column still have supply and demand.
+// Cells are taken from a binary min-heap keyed by cost and then by position.
+public class LeastCostMethod implements InitialBasisMethod {
+    @Override
+    public void allocate(int[][] cost, int[] supply, int[] demand, BasicCells basicCells) {
+        int m = supply.length, n = demand.length;
+        if ((long) m * n > Integer.MAX_VALUE)
+            throw new RuntimeException("Problem is too large for the least cost method");
+
+        long[] heap = new long[m * n];
+        for (int i = 0; i < m; ++i) {
+            for (int j = 0; j < n; ++j)
+                heap[i * n + j] = (long) cost[i][j] << 32 | (i * n + j);
+        }
+        int size = heap.length;
+        for (int k = size / 2 - 1; k >= 0; --k)
+            siftDown(heap, k, size);
+
+        int openRows = 0;
+        for (int s : supply) {
+            if (s > 0)
+                ++openRows;
+        }
+
+        while (openRows > 0 && size > 0) {
+            int cell = (int) heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, 0, size);
+
+            int i = cell / n, j = cell % n;
+            if (supply[i] == 0 || demand[j] == 0)
+                continue;
+
+            int amount = Math.min(supply[i], demand[j]);
+            basicCells.add(i, j, amount);
+            supply[i] -= amount;
+            demand[j] -= amount;
+            if (supply[i] == 0)
+                --openRows;
+        }
+    }
+
+    private static void siftDown(long[] heap, int k, int size) {
+        while (true) {
+            int smallest = k, left = 2 * k + 1, right = left + 1;
+            if (left < size && heap[left] < heap[smallest])
+                smallest = left;
+            if (right < size && heap[right] < heap[smallest])
+                smallest = right;
+            if (smallest == k)
+                return;
+
+            long swap = heap[k];
+            heap[k] = heap[smallest];
+            heap[smallest] = swap;
+            k = smallest;
+        }
+    }
+}
@@ -58,11 +58,12 @@ public class Main {
 //        TransportationProblemPrinter.printAllocation("Optimal solution: ", parallelTransportationProblemSolver.getAllocation());
         System.out.println("Total cost of delivery: " + parallelTransportationProblemSolver.getCost());
 
-        final boolean areEqual = SolutionValidator.compareSolutions(transportationProblemSolver.getAllocation(), parallelTransportationProblemSolver.getAllocation());
-        if (areEqual)
-            System.out.println("Solutions are equal");
-        else
-            System.out.println("Solutions are not equal");
+        // both solvers may end in different optimal bases, so each solution is checked against its own potentials
+        SolutionVerifier verifier = new SolutionVerifier();
+        System.out.println("Sequential solution: " + verifier.verify(transportationProblem, transportationProblemSolver.getAllocation(),
+                transportationProblemSolver.getRowPotentials(), transportationProblemSolver.getColumnPotentials()));
+        System.out.println("Parallel solution: " + verifier.verify(transportationProblem, parallelTransportationProblemSolver.getAllocation(),
+                parallelTransportationProblemSolver.getRowPotentials(), parallelTransportationProblemSolver.getColumnPotentials()));
 
         System.out.println("Acceleration: " + (double) totalSequential / (double) totalParallel);
     }
@@ -0,0 +1,64 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+// Transportation problem whose costs stay in a memory-mapped problem file. A single mapping is limited to 2 GB, so
+// the cost matrix is mapped in blocks of whole rows. Supplies and demands are small and live on the heap.
+public class MappedTransportationProblem {
+    final int m, n;
+    final int[] supply, demand;
+    final int rowsPerBlock;
+    final IntBuffer[] blocks;
+
+    MappedTransportationProblem(FileChannel channel, long costStart, int[] supply, int[] demand) throws IOException {
+        this.m = supply.length;
+        this.n = demand.length;
+        this.supply = supply;
+        this.demand = demand;
+        this.rowsPerBlock = Math.max(1, Integer.MAX_VALUE / 4 / Math.max(1, n));
+        this.blocks = new IntBuffer[(m + rowsPerBlock - 1) / rowsPerBlock];
+
+        // mappings stay valid after the channel is closed
+        for (int b = 0; b < blocks.length; ++b) {
+            int rows = Math.min(rowsPerBlock, m - b * rowsPerBlock);
+            blocks[b] = channel.map(FileChannel.MapMode.READ_ONLY, costStart + 4L * n * b * rowsPerBlock, 4L * n * rows)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+    }
+
+    public int rowCount() {
+        return m;
+    }
+
+    public int columnCount() {
+        return n;
+    }
+
+    public int getSupply(int i) {
+        return supply[i];
+    }
+
+    public int getDemand(int j) {
+        return demand[j];
+    }
+
+    public int getCost(int i, int j) {
+        return blocks[i / rowsPerBlock].get((i % rowsPerBlock) * n + j);
+    }
+
+    public void getCostRow(int i, int[] costRow) {
+        blocks[i / rowsPerBlock].get((i % rowsPerBlock) * n, costRow, 0, n);
+    }
+
+    // Block holding row i; the row starts at rowOffset(i) in it
+    IntBuffer block(int i) {
+        return blocks[i / rowsPerBlock];
+    }
+
+    int rowOffset(int i) {
+        return (i % rowsPerBlock) * n;
+    }
+}
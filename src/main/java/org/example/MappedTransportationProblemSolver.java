@@ -0,0 +1,126 @@
+package org.example;
+
+import java.nio.IntBuffer;
+
+// Solves a MappedTransportationProblem reading costs straight from the mapping. The allocation matrix is still
+// kept on the heap. Costs are read-only, and initial basis methods, which take a cost matrix, are not available.
+public class MappedTransportationProblemSolver extends TransportationProblemSolver {
+    protected final MappedTransportationProblem mappedProblem;
+
+    public MappedTransportationProblemSolver(MappedTransportationProblem problem) {
+        super(new TransportationProblem(null, problem.supply, problem.demand));
+        this.mappedProblem = problem;
+        // one pass over the mapping up front, as the heap solver checks its cost matrix
+        int[] costRow = new int[costColumns];
+        for (int i = 0; i < problem.rowCount(); ++i) {
+            problem.getCostRow(i, costRow);
+            checkCosts(costRow, costLimit);
+        }
+    }
+
+    @Override
+    protected int cost(int i, int j) {
+        if (i == dummyRow || j == dummyColumn)
+            return super.cost(i, j);
+        return mappedProblem.getCost(i, j);
+    }
+
+    @Override
+    protected void setCost(int i, int j, int value) {
+        throw new RuntimeException("Costs of a memory-mapped problem cannot be changed");
+    }
+
+    // rejected before any supply or demand is touched, so the solver keeps its optimal basis
+    @Override
+    public void resolve(ProblemChange change) {
+        if (!change.costs.isEmpty())
+            throw new RuntimeException("Costs of a memory-mapped problem cannot be changed");
+        super.resolve(change);
+    }
+
+    @Override
+    public void setInitialBasisMethod(InitialBasisMethod initialBasisMethod) {
+        if (initialBasisMethod != null)
+            throw new RuntimeException("Initial basis methods need the costs on the heap");
+    }
+
+    // the flat layout would copy the whole mapping onto the heap
+    @Override
+    public void setMatrixLayout(MatrixLayout matrixLayout) {
+        if (matrixLayout != MatrixLayout.NESTED)
+            throw new RuntimeException("Memory-mapped costs are only read in place");
+    }
+
+    @Override
+    public int priceRows(int fromRow, int toRow) {
+        int minDelta = Integer.MAX_VALUE;
+        for (int i = fromRow; i < toRow; ++i) {
+            // the dummy row has its penalties on the heap
+            if (i == dummyRow) {
+                int bestI = minI, bestJ = minJ, rowDelta = super.priceRows(i, i + 1);
+                if (rowDelta < minDelta)
+                    minDelta = rowDelta;
+                else {
+                    minI = bestI;
+                    minJ = bestJ;
+                }
+                continue;
+            }
+
+            IntBuffer block = mappedProblem.block(i);
+            int offset = mappedProblem.rowOffset(i);
+            for (int j = 0; j < costColumns; ++j) {
+                if (!basic[i][j]) {
+                    int delta = block.get(offset + j) - (u[i] + v[j]);
+                    if (delta < minDelta) {
+                        minDelta = delta;
+                        minI = i;
+                        minJ = j;
+                    }
+                }
+            }
+
+            if (dummyColumn != NO_DUMMY && !basic[i][dummyColumn] && reducedCost(i, dummyColumn) < minDelta) {
+                minDelta = reducedCost(i, dummyColumn);
+                minI = i;
+                minJ = dummyColumn;
+            }
+        }
+        return minDelta;
+    }
+
+    @Override
+    public int findNegativeInRows(int fromRow, int toRow) {
+        for (int i = fromRow; i < toRow; ++i) {
+            if (i == dummyRow) {
+                int rowDelta = super.findNegativeInRows(i, i + 1);
+                if (rowDelta < 0)
+                    return rowDelta;
+                continue;
+            }
+
+            IntBuffer block = mappedProblem.block(i);
+            int offset = mappedProblem.rowOffset(i);
+            for (int j = 0; j < costColumns; ++j) {
+                int delta = block.get(offset + j) - (u[i] + v[j]);
+                if (!basic[i][j] && delta < 0) {
+                    minI = i;
+                    minJ = j;
+                    return delta;
+                }
+            }
+
+            if (dummyColumn != NO_DUMMY && !basic[i][dummyColumn] && reducedCost(i, dummyColumn) < 0) {
+                minI = i;
+                minJ = dummyColumn;
+                return reducedCost(i, dummyColumn);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int reducedCost(int i, int j) {
+        return cost(i, j) - (u[i] + v[j]);
+    }
+}
@@ -0,0 +1,10 @@
+package org.example;
+
+public enum MatrixLayout {
+    // Costs and allocation as arrays of rows, as the problem hands them over
+    NESTED,
+    // Pricing reads a row-major copy of the costs in one int[] and needs no basis flags: basic cells price at 0, so
+    // the row minimum is a plain min reduction the JIT can vectorise. Depth-first cycle searches walk the basic
+    // cells of a row or column from the basis tree instead of scanning it. Costs the memory of a second cost matrix.
+    FLAT
+}
@@ -0,0 +1,387 @@
+package org.example;
+
+import java.util.Arrays;
+
+// Primal network simplex on the transportation problem seen as a min-cost flow: rows are supply nodes, columns are
+// demand nodes, every cell (i, j) is an arc from row node i to column node m + j, and an artificial root node m + n
+// is joined to every node by an artificial arc. The spanning tree is kept as parent/thread lists with subtree
+// sizes, so a pivot touches only the cycle and the subtree that moves, and potentials are shifted on that subtree
+// alone. The tree is strongly feasible: the leaving arc is the last blocking one met when walking the cycle in its
+// own direction, which rules out cycling on degenerate pivots. Entering arcs come from block search pricing, which
+// scans blocks of about sqrt(m * n) arcs round-robin and takes the best arc of the first block that has one.
+public class NetworkSimplexSolver implements TransportationSolver {
+    private static final byte TREE = 0, LOWER = 1;
+    private static final int UP = 1, DOWN = -1;
+
+    protected final int m, n, nodeCount, arcCount, root;
+    protected final int[][] cost;
+    protected final int[] supply, demand;
+    protected final long artificialCost;
+    protected final int blockSize;
+
+    // per node: potential, tree parent and the arc to it, its direction and flow, the thread (preorder) list,
+    // subtree size and the last node of the subtree in thread order
+    protected final long[] pi, flow;
+    protected final int[] parent, pred, predDirection, thread, reverseThread, subtreeSize, lastSuccessor;
+    // per arc: cells first, then one artificial arc per node
+    protected final byte[] state;
+    protected final int[] artificialSource, artificialTarget;
+    // nodes whose thread successor changes while the stem is reversed
+    protected final int[] reverseThreadFixes;
+
+    protected int enteringArc, nextArc, join, uIn, vIn, uOut;
+    protected long delta;
+    protected int pivotCount, degeneratePivotCount;
+
+    public NetworkSimplexSolver(TransportationProblem problem) {
+        this.m = problem.supply.length;
+        this.n = problem.demand.length;
+        this.cost = problem.cost;
+        this.supply = problem.supply;
+        this.demand = problem.demand;
+        if ((long) m * n + m + n > MAX_NETWORK_ARCS)
+            throw new RuntimeException("Problem has too many cells for the network simplex");
+        this.nodeCount = m + n;
+        this.arcCount = m * n;
+        this.root = nodeCount;
+
+        long supplySum = 0, demandSum = 0;
+        for (int s : supply)
+            supplySum += s;
+        for (int d : demand)
+            demandSum += d;
+        if (supplySum != demandSum)
+            throw new RuntimeException("Supplies do not match demands");
+
+        // an artificial arc costs more than any path of cells, so none of them carries flow at the optimum
+        long maxCost = 0;
+        for (int[] costRow : cost) {
+            for (int c : costRow)
+                maxCost = Math.max(maxCost, Math.abs((long) c));
+        }
+        this.artificialCost = (maxCost + 1) * (nodeCount + 1);
+        this.blockSize = Math.max(10, (int) Math.sqrt(arcCount));
+
+        this.pi = new long[nodeCount + 1];
+        this.flow = new long[nodeCount + 1];
+        this.parent = new int[nodeCount + 1];
+        this.pred = new int[nodeCount + 1];
+        this.predDirection = new int[nodeCount + 1];
+        this.thread = new int[nodeCount + 1];
+        this.reverseThread = new int[nodeCount + 1];
+        this.subtreeSize = new int[nodeCount + 1];
+        this.lastSuccessor = new int[nodeCount + 1];
+        this.state = new byte[arcCount + nodeCount];
+        this.artificialSource = new int[nodeCount];
+        this.artificialTarget = new int[nodeCount];
+        this.reverseThreadFixes = new int[nodeCount + 1];
+    }
+
+    @Override
+    public void solve() {
+        pivotCount = 0;
+        degeneratePivotCount = 0;
+        initialTree();
+
+        while (findEnteringArc()) {
+            ++pivotCount;
+            findJoinNode();
+            findLeavingArc();
+            changeFlow();
+            updateTreeStructure();
+            updatePotentials();
+        }
+
+        for (int u = 0; u < nodeCount; ++u) {
+            if (pred[u] >= arcCount && flow[u] > 0)
+                throw new RuntimeException("Supplies cannot be delivered");
+        }
+    }
+
+    // Every node hangs directly below the root on its artificial arc: supply nodes send their supply up to the
+    // root at no cost, demand nodes get their demand down from it at the artificial cost
+    protected void initialTree() {
+        Arrays.fill(state, LOWER);
+        parent[root] = -1;
+        pred[root] = -1;
+        thread[root] = 0;
+        reverseThread[0] = root;
+        subtreeSize[root] = nodeCount + 1;
+        lastSuccessor[root] = root - 1;
+        pi[root] = 0;
+        nextArc = 0;
+
+        for (int u = 0; u < nodeCount; ++u) {
+            int e = arcCount + u;
+            parent[u] = root;
+            pred[u] = e;
+            thread[u] = u + 1;
+            reverseThread[u + 1] = u;
+            subtreeSize[u] = 1;
+            lastSuccessor[u] = u;
+            state[e] = TREE;
+            if (u < m) {
+                predDirection[u] = UP;
+                pi[u] = 0;
+                artificialSource[u] = u;
+                artificialTarget[u] = root;
+                flow[u] = supply[u];
+            } else {
+                predDirection[u] = DOWN;
+                pi[u] = artificialCost;
+                artificialSource[u] = root;
+                artificialTarget[u] = u;
+                flow[u] = demand[u - m];
+            }
+        }
+    }
+
+    protected int source(int e) {
+        return e < arcCount ? e / n : artificialSource[e - arcCount];
+    }
+
+    protected int target(int e) {
+        return e < arcCount ? m + e % n : artificialTarget[e - arcCount];
+    }
+
+    protected long arcCost(int e) {
+        if (e < arcCount)
+            return cost[e / n][e % n];
+        return artificialSource[e - arcCount] == root ? artificialCost : 0;
+    }
+
+    // Block search over the cells only; artificial arcs that left the tree never come back
+    protected boolean findEnteringArc() {
+        long min = 0;
+        int count = blockSize;
+        int e = nextArc, i = e / n, j = e % n;
+        for (int scanned = 0; scanned < arcCount; ++scanned) {
+            long c = state[e] * (cost[i][j] + pi[i] - pi[m + j]);
+            if (c < min) {
+                min = c;
+                enteringArc = e;
+            }
+
+            if (++e == arcCount) {
+                e = 0;
+                i = 0;
+                j = 0;
+            } else if (++j == n) {
+                j = 0;
+                ++i;
+            }
+            if (--count == 0) {
+                if (min < 0)
+                    break;
+                count = blockSize;
+            }
+        }
+        nextArc = e;
+        return min < 0;
+    }
+
+    protected void findJoinNode() {
+        int u = source(enteringArc), v = target(enteringArc);
+        while (u != v) {
+            if (subtreeSize[u] < subtreeSize[v])
+                u = parent[u];
+            else
+                v = parent[v];
+        }
+        join = u;
+    }
+
+    // The cycle runs along the entering arc from its source to its target and back to the source through join.
+    // Arcs on the source side pointing up and arcs on the target side pointing down lose flow. Taking the last
+    // blocking arc in cycle order (strict on the first side, non-strict on the second) keeps the tree strongly
+    // feasible.
+    protected void findLeavingArc() {
+        int first = source(enteringArc), second = target(enteringArc);
+        delta = Long.MAX_VALUE;
+        int side = 0;
+        for (int u = first; u != join; u = parent[u]) {
+            if (predDirection[u] == UP && flow[u] < delta) {
+                delta = flow[u];
+                uOut = u;
+                side = 1;
+            }
+        }
+        for (int u = second; u != join; u = parent[u]) {
+            if (predDirection[u] == DOWN && flow[u] <= delta) {
+                delta = flow[u];
+                uOut = u;
+                side = 2;
+            }
+        }
+        if (side == 0)
+            throw new RuntimeException("Cycle of the entering cell has no arc that can leave");
+
+        uIn = side == 1 ? first : second;
+        vIn = side == 1 ? second : first;
+    }
+
+    protected void changeFlow() {
+        if (delta == 0) {
+            ++degeneratePivotCount;
+        } else {
+            for (int u = source(enteringArc); u != join; u = parent[u])
+                flow[u] -= predDirection[u] * delta;
+            for (int u = target(enteringArc); u != join; u = parent[u])
+                flow[u] += predDirection[u] * delta;
+        }
+        state[enteringArc] = TREE;
+        state[pred[uOut]] = LOWER;
+    }
+
+    // Hangs the subtree below the leaving arc on the entering arc: the stem from uIn up to uOut is reversed, and
+    // the thread list, subtree sizes and last successors are patched along the stem and the two paths to join
+    protected void updateTreeStructure() {
+        int oldReverseThread = reverseThread[uOut];
+        int oldSubtreeSize = subtreeSize[uOut];
+        int oldLastSuccessor = lastSuccessor[uOut];
+        int vOut = parent[uOut];
+
+        if (uIn == uOut) {
+            parent[uIn] = vIn;
+            pred[uIn] = enteringArc;
+            predDirection[uIn] = uIn == source(enteringArc) ? UP : DOWN;
+            flow[uIn] = delta;
+
+            if (thread[vIn] != uOut) {
+                int after = thread[oldLastSuccessor];
+                thread[oldReverseThread] = after;
+                reverseThread[after] = oldReverseThread;
+                after = thread[vIn];
+                thread[vIn] = uOut;
+                reverseThread[uOut] = vIn;
+                thread[oldLastSuccessor] = after;
+                reverseThread[after] = oldLastSuccessor;
+            }
+        } else {
+            // if the subtree directly follows vIn in the thread, join and vOut coincide
+            int threadContinue = oldReverseThread == vIn ? thread[oldLastSuccessor] : thread[vIn];
+
+            int stem = uIn, parentStem = vIn;
+            int last = lastSuccessor[uIn];
+            int after = thread[last];
+            thread[vIn] = uIn;
+            int dirtyCount = 0;
+            int[] dirty = reverseThreadFixes;
+            dirty[dirtyCount++] = vIn;
+            while (stem != uOut) {
+                int nextStem = parent[stem];
+                thread[last] = nextStem;
+                dirty[dirtyCount++] = last;
+
+                int before = reverseThread[stem];
+                thread[before] = after;
+                reverseThread[after] = before;
+
+                parent[stem] = parentStem;
+                parentStem = stem;
+                stem = nextStem;
+
+                last = lastSuccessor[stem] == lastSuccessor[parentStem] ? reverseThread[parentStem] : lastSuccessor[stem];
+                after = thread[last];
+            }
+            parent[uOut] = parentStem;
+            thread[last] = threadContinue;
+            reverseThread[threadContinue] = last;
+            lastSuccessor[uOut] = last;
+
+            if (oldReverseThread != vIn) {
+                thread[oldReverseThread] = after;
+                reverseThread[after] = oldReverseThread;
+            }
+            for (int k = 0; k < dirtyCount; ++k)
+                reverseThread[thread[dirty[k]]] = dirty[k];
+
+            // each stem node takes over the arc, direction and flow of its new parent, which used to be its child
+            int sizeChange = 0, stemLastSuccessor = lastSuccessor[uOut];
+            for (int u = uOut, p = parent[u]; u != uIn; u = p, p = parent[u]) {
+                pred[u] = pred[p];
+                predDirection[u] = -predDirection[p];
+                flow[u] = flow[p];
+                sizeChange += subtreeSize[u] - subtreeSize[p];
+                subtreeSize[u] = sizeChange;
+                lastSuccessor[p] = stemLastSuccessor;
+            }
+            pred[uIn] = enteringArc;
+            predDirection[uIn] = uIn == source(enteringArc) ? UP : DOWN;
+            flow[uIn] = delta;
+            subtreeSize[uIn] = oldSubtreeSize;
+        }
+
+        int upLimitOut = lastSuccessor[join] == vIn ? join : -1;
+        int lastSuccessorOut = lastSuccessor[uOut];
+        for (int u = vIn; u != -1 && lastSuccessor[u] == vIn; u = parent[u])
+            lastSuccessor[u] = lastSuccessorOut;
+
+        if (join != oldReverseThread && vIn != oldReverseThread) {
+            for (int u = vOut; u != upLimitOut && lastSuccessor[u] == oldLastSuccessor; u = parent[u])
+                lastSuccessor[u] = oldReverseThread;
+        } else if (lastSuccessorOut != oldLastSuccessor) {
+            for (int u = vOut; u != upLimitOut && lastSuccessor[u] == oldLastSuccessor; u = parent[u])
+                lastSuccessor[u] = lastSuccessorOut;
+        }
+
+        for (int u = vIn; u != join; u = parent[u])
+            subtreeSize[u] += oldSubtreeSize;
+        for (int u = vOut; u != join; u = parent[u])
+            subtreeSize[u] -= oldSubtreeSize;
+    }
+
+    // Shifts the potentials of the moved subtree so the entering arc gets a zero reduced cost
+    protected void updatePotentials() {
+        long sigma = pi[vIn] - pi[uIn] - predDirection[uIn] * arcCost(enteringArc);
+        int end = thread[lastSuccessor[uIn]];
+        for (int u = uIn; u != end; u = thread[u])
+            pi[u] += sigma;
+    }
+
+    @Override
+    public int[][] getAllocation() {
+        int[][] allocation = new int[m][n];
+        for (int u = 0; u < nodeCount; ++u) {
+            int e = pred[u];
+            if (e < arcCount && flow[u] > 0)
+                allocation[e / n][e % n] = (int) flow[u];
+        }
+        return allocation;
+    }
+
+    @Override
+    public long getCost() {
+        long totalCost = 0;
+        for (int u = 0; u < nodeCount; ++u) {
+            int e = pred[u];
+            if (e < arcCount)
+                totalCost += flow[u] * cost[e / n][e % n];
+        }
+        return totalCost;
+    }
+
+    // Node potentials in the sign convention of the other solvers: the reduced cost cost + pi[i] - pi[m + j] of a
+    // cell is cost[i][j] - u[i] - v[j] with u[i] = -pi[i] and v[j] = pi[m + j]
+    public long[] getRowPotentials() {
+        long[] rowPotentials = new long[m];
+        for (int i = 0; i < m; ++i)
+            rowPotentials[i] = -pi[i];
+        return rowPotentials;
+    }
+
+    public long[] getColumnPotentials() {
+        long[] columnPotentials = new long[n];
+        for (int j = 0; j < n; ++j)
+            columnPotentials[j] = pi[m + j];
+        return columnPotentials;
+    }
+
+    public int getPivotCount() {
+        return pivotCount;
+    }
+
+    public int getDegeneratePivotCount() {
+        return degeneratePivotCount;
+    }
+}
@@ -1,160 +1,201 @@
 package org.example;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
 
+// Runs pricing, potential labelling and allocation updates on a shared executor, which is never shut down by the
+// solver, so one pool can serve any number of solvers and solves. A phase is only forked when it is large enough
+// to pay for the hand-off; smaller ones run on the calling thread.
 public class ParallelTransportationProblemSolver extends TransportationProblemSolver {
+    protected static final int MIN_PARALLEL_CELLS = 1 << 14, MIN_PARALLEL_NODES = 1 << 11;
+
     protected final int numThreads;
     protected final ExecutorService executor;
+    protected final ChunkRunner runner;
+    private final int[] chunkMinDelta, chunkMinI, chunkMinJ, chunkCount;
+    private int[][] levelBuffers;
+    // chunk bodies are created once and read their range from these fields, so a pivot does not allocate lambdas
+    private int chunkFrom, chunkTo;
+    private final IntConsumer priceTask = t -> priceChunk(t, chunkStart(t), chunkStart(t + 1));
+    private final IntConsumer labelTask = this::labelChunk;
+    private final IntConsumer adjustTask = t -> adjustChain(chunkStart(t), chunkStart(t + 1));
 
     public ParallelTransportationProblemSolver(TransportationProblem problem) {
-        super(problem);
-        this.numThreads = 16;
-        executor = Executors.newFixedThreadPool(numThreads);
+        this(problem, ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
     }
 
-    public void solve() {
-        northwestCornerMethod();
-        while (true) {
-            isCurrentSolutionOptimal = true;
-            computePotentials();
-            isCurrentSolutionOptimal = conductDeltaOperations();
-            if (isCurrentSolutionOptimal) {
-                executor.shutdown();
-                try {
-                    if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
-                        executor.shutdownNow();
-                        if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
-                            throw new RuntimeException("Executor did not terminate");
-                        }
-                    }
-                } catch (InterruptedException e) {
-                    throw new RuntimeException("Executor did not terminate");
-                }
-                break;
-            }
-            buildChain();
-            adjustAllocation();
-        }
+    public ParallelTransportationProblemSolver(TransportationProblem problem, ExecutorService executor) {
+        this(problem, executor, ChunkRunner.defaultParallelism(executor));
     }
 
-    private static class DeltaTaskResult {
-        int minDelta = Integer.MAX_VALUE;
-        int minI = -1;
-        int minJ = -1;
-        boolean isCurrentSolutionOptimal = true;
+    public ParallelTransportationProblemSolver(TransportationProblem problem, ExecutorService executor, int numThreads) {
+        super(problem);
+        this.numThreads = numThreads;
+        this.executor = executor;
+        this.runner = new ChunkRunner(executor, numThreads);
+        this.chunkMinDelta = new int[numThreads];
+        this.chunkMinI = new int[numThreads];
+        this.chunkMinJ = new int[numThreads];
+        this.chunkCount = new int[numThreads];
     }
 
-    protected boolean conductDeltaOperations() {
-        int baseChunkSize = m / numThreads;
-        int remainder = m % numThreads;
-        int currentRow = 0;
-        List<Future<DeltaTaskResult>> futures = new ArrayList<>();
+    @Override
+    public int priceRows(int fromRow, int toRow) {
+        if (toRow - fromRow < numThreads || (long) (toRow - fromRow) * n < MIN_PARALLEL_CELLS)
+            return super.priceRows(fromRow, toRow);
+
+        runChunks(priceTask, fromRow, toRow);
 
+        // chunks are merged in row order, so ties resolve as in the sequential scan
+        int minDelta = Integer.MAX_VALUE;
         for (int t = 0; t < numThreads; ++t) {
-            int rowsInThisChunk = baseChunkSize + (t < remainder ? 1 : 0);
-            final int startRow = currentRow;
-            final int endRow = startRow + rowsInThisChunk;
-            currentRow = endRow;
-
-            futures.add(executor.submit(() -> {
-                DeltaTaskResult localResult = new DeltaTaskResult();
-                for (int i = startRow; i < endRow; ++i) {
-                    for (int j = 0; j < n; ++j) {
-                        if (allocation[i][j] == NOT_ALLOCATED) {
-                            int deltaVal = cost[i][j] - (u[i] + v[j]);
-                            delta[i][j] = deltaVal;
-
-                            if (deltaVal < 0)
-                                localResult.isCurrentSolutionOptimal = false;
-
-                            if (deltaVal < localResult.minDelta) {
-                                localResult.minDelta = deltaVal;
-                                localResult.minI = i;
-                                localResult.minJ = j;
-                            }
-                        } else {
-                            delta[i][j] = UNDEFINED;
-                        }
+            if (chunkMinDelta[t] < minDelta) {
+                minDelta = chunkMinDelta[t];
+                minI = chunkMinI[t];
+                minJ = chunkMinJ[t];
+            }
+        }
+        return minDelta;
+    }
+
+    private void priceChunk(int t, int startRow, int endRow) {
+        if (matrixLayout == MatrixLayout.FLAT) {
+            priceFlatChunk(t, startRow, endRow);
+            return;
+        }
+
+        int minDelta = Integer.MAX_VALUE, localMinI = -1, localMinJ = -1;
+        for (int i = startRow; i < endRow; ++i) {
+            int[] costRow = costRow(i);
+            for (int j = 0; j < costColumns; ++j) {
+                if (!basic[i][j]) {
+                    int deltaVal = costRow[j] - (u[i] + v[j]);
+
+                    if (deltaVal < minDelta) {
+                        minDelta = deltaVal;
+                        localMinI = i;
+                        localMinJ = j;
                     }
                 }
-                return localResult;
-            }));
+            }
+
+            if (dummyColumn != NO_DUMMY && !basic[i][dummyColumn]) {
+                int deltaVal = overflowPenalty[i] - (u[i] + v[dummyColumn]);
+                if (deltaVal < minDelta) {
+                    minDelta = deltaVal;
+                    localMinI = i;
+                    localMinJ = dummyColumn;
+                }
+            }
         }
+        chunkMinDelta[t] = minDelta;
+        chunkMinI[t] = localMinI;
+        chunkMinJ[t] = localMinJ;
+    }
 
-        int minDelta = Integer.MAX_VALUE;
-        try {
-            for (Future<DeltaTaskResult> future : futures) {
-                DeltaTaskResult result = future.get();
-                if (!result.isCurrentSolutionOptimal) isCurrentSolutionOptimal = false;
-                if (result.minDelta < minDelta) {
-                    minDelta = result.minDelta;
-                    minI = result.minI;
-                    minJ = result.minJ;
+    private void priceFlatChunk(int t, int startRow, int endRow) {
+        int minDelta = 0, localMinI = -1, localMinJ = -1;
+        for (int i = startRow; i < endRow; ++i) {
+            int rowDelta = flatRowMinimum(i);
+            if (rowDelta < minDelta) {
+                minDelta = rowDelta;
+                localMinI = i;
+                localMinJ = flatColumnOf(i, rowDelta);
+            }
+
+            if (dummyColumn != NO_DUMMY && !basic[i][dummyColumn]) {
+                int deltaVal = overflowPenalty[i] - (u[i] + v[dummyColumn]);
+                if (deltaVal < minDelta) {
+                    minDelta = deltaVal;
+                    localMinI = i;
+                    localMinJ = dummyColumn;
                 }
             }
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
         }
+        chunkMinDelta[t] = minDelta;
+        chunkMinI[t] = localMinI;
+        chunkMinJ[t] = localMinJ;
+    }
 
-        return isCurrentSolutionOptimal;
+    @Override
+    protected void computePotentials() {
+        basis.traverse();
+        labelNode(0);
+        int labelled = labelLevels(0, 1);
+        if (labelled != m + n)
+            throw new RuntimeException("Basis does not span all rows and columns");
     }
 
-    protected void adjustAllocation() {
-        int minValue = chain.getMinValue();
-        int chainSize = chain.chain.size();
-        int baseChunkSize = chainSize / numThreads;
-        int remainder = chainSize % numThreads;
-        int currentRow = 0;
+    @Override
+    protected void updatePotentials() {
+        labelNode(basis.reattach(minI, minJ, findLeavingEdge()));
+        labelLevels(0, 1);
+    }
 
-        List<Future<Void>> futures = new ArrayList<>();
+    // Level-synchronous breadth-first labelling below the already labelled level order[levelStart..levelEnd).
+    // Large levels are expanded across threads into per-thread buffers and then appended to order.
+    protected int labelLevels(int levelStart, int levelEnd) {
+        int[] order = basis.order;
+        while (levelStart < levelEnd) {
+            int next = levelEnd;
+
+            if (levelEnd - levelStart < MIN_PARALLEL_NODES) {
+                for (int k = levelStart; k < levelEnd; ++k) {
+                    int first = next;
+                    next = basis.expand(order[k], order, next);
+                    for (int c = first; c < next; ++c)
+                        labelNode(order[c]);
+                }
+            } else {
+                if (levelBuffers == null)
+                    levelBuffers = new int[numThreads][m + n];
 
-        for (int t = 0; t < numThreads; ++t) {
-            int rowsInThisChunk = baseChunkSize + (t < remainder ? 1 : 0);
-            int startRow = currentRow;
-            int endRow = startRow + rowsInThisChunk;
-            currentRow = endRow;
-
-            futures.add(executor.submit(() -> {
-                for (int idx = startRow; idx < endRow; ++idx) {
-                    ChainElement element = chain.chain.get(idx);
-                    int i = element.i;
-                    int j = element.j;
-
-                    if (element.sign == Sign.NEGATIVE) {
-                        if (allocation[i][j] - minValue == 0)
-                            allocation[i][j] = NOT_ALLOCATED;
-                        else
-                            allocation[i][j] -= minValue;
-                    } else {
-                        if (allocation[i][j] == NOT_ALLOCATED)
-                            allocation[i][j] += minValue + 1;
-                        else
-                            allocation[i][j] += minValue;
-                    }
+                runChunks(labelTask, levelStart, levelEnd);
+
+                for (int t = 0; t < numThreads; ++t) {
+                    System.arraycopy(levelBuffers[t], 0, order, next, chunkCount[t]);
+                    next += chunkCount[t];
                 }
-                return null;
-            }));
+            }
+
+            levelStart = levelEnd;
+            levelEnd = next;
         }
+        return levelEnd;
+    }
 
-        try {
-            for (Future<Void> future : futures)
-                future.get();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
+    private void labelChunk(int t) {
+        int[] order = basis.order, buffer = levelBuffers[t];
+        int count = 0;
+        for (int k = chunkStart(t); k < chunkStart(t + 1); ++k) {
+            int first = count;
+            count = basis.expand(order[k], buffer, count);
+            for (int c = first; c < count; ++c)
+                labelNode(buffer[c]);
         }
+        chunkCount[t] = count;
+    }
 
-        int degenerateCount = degenerateCount();
-        if (degenerateCount > 0) {
-            ArrayList<ChainElement> degenerateElements = new ArrayList<>();
-            for (ChainElement chainElement : chain.chain) {
-                if (allocation[chainElement.i][chainElement.j] == NOT_ALLOCATED)
-                    degenerateElements.add(chainElement);
-            }
-            degenerateElements.sort((a, b) -> cost[b.i][b.j] - cost[a.i][a.j]);
-            for (int i = 0; i < degenerateCount; ++i)
-                allocation[degenerateElements.get(i).i][degenerateElements.get(i).j] = 0;
+    private void runChunks(IntConsumer task, int from, int to) {
+        chunkFrom = from;
+        chunkTo = to;
+        runner.run(numThreads, task);
+    }
+
+    private int chunkStart(int t) {
+        return ChunkRunner.chunkStart(chunkFrom, chunkTo, t, numThreads);
+    }
+
+    @Override
+    protected void adjustAllocation() {
+        if (chainLength < MIN_PARALLEL_NODES) {
+            super.adjustAllocation();
+            return;
         }
+
+        stepSize = selectLeavingCell();
+        runChunks(adjustTask, 0, chainLength);
+        swapBasicCells();
     }
 }
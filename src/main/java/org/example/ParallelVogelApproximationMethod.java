@@ -0,0 +1,45 @@
+package org.example;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+// Vogel's approximation method with the row and column penalties of each iteration refreshed across threads
+public class ParallelVogelApproximationMethod extends VogelApproximationMethod {
+    protected final ExecutorService executor;
+    protected final int numThreads;
+
+    public ParallelVogelApproximationMethod() {
+        this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelVogelApproximationMethod(ExecutorService executor, int numThreads) {
+        this.executor = executor;
+        this.numThreads = numThreads;
+    }
+
+    @Override
+    public void allocate(int[][] cost, int[] supply, int[] demand, BasicCells basicCells) {
+        ChunkRunner runner = new ChunkRunner(executor, numThreads);
+        int[] chunkLines = new int[numThreads];
+        VogelTableau tableau = new VogelTableau(cost, supply, demand);
+        int lines = tableau.m + tableau.n;
+
+        while (!tableau.isFinished()) {
+            if (lines < 2 * numThreads) {
+                tableau.allocate(tableau.selectLine(0, lines), basicCells);
+                continue;
+            }
+
+            runner.run(numThreads, t -> chunkLines[t] = tableau.selectLine(ChunkRunner.chunkStart(0, lines, t, numThreads),
+                    ChunkRunner.chunkStart(0, lines, t + 1, numThreads)));
+
+            // chunks are merged in order, so ties go to the lowest line as in the sequential method
+            int selected = VogelTableau.NONE;
+            for (int line : chunkLines) {
+                if (line != VogelTableau.NONE && (selected == VogelTableau.NONE || tableau.penalty(line) > tableau.penalty(selected)))
+                    selected = line;
+            }
+            tableau.allocate(selected, basicCells);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.example;
+
+// Prices one block of rows at a time and takes the best cell of the first block that has an improving one.
+// The next search starts at the block after it.
+public class PartialPricing implements PricingStrategy {
+    private final int blockSize;
+    private int startRow;
+
+    public PartialPricing(int blockSize) {
+        if (blockSize <= 0)
+            throw new RuntimeException("Block size must be positive");
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public boolean selectEnteringCell(PricingContext context) {
+        int m = context.rowCount();
+        int fromRow = startRow;
+
+        for (int scanned = 0; scanned < m; scanned += blockSize) {
+            int toRow = Math.min(fromRow + blockSize, m);
+            boolean found = context.priceRows(fromRow, toRow) < 0;
+            fromRow = toRow == m ? 0 : toRow;
+
+            if (found) {
+                startRow = fromRow;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void reset() {
+        startRow = 0;
+    }
+}
@@ -0,0 +1,29 @@
+package org.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Off by default because a solve can have many thousands of pivots; enable org.example.Pivot in the recording
+// settings to trace the objective
+@Name("org.example.Pivot")
+@Label("Transportation Problem Pivot")
+@Category("Transportation Problem")
+@Enabled(false)
+@StackTrace(false)
+class PivotEvent extends Event {
+    @Label("Pivot")
+    int pivot;
+
+    @Label("Chain Length")
+    int chainLength;
+
+    @Label("Amount")
+    int amount;
+
+    @Label("Objective")
+    long objective;
+}
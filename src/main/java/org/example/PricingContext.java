@@ -0,0 +1,28 @@
+package org.example;
+
+// View of a solver that pricing strategies use to look for an entering cell.
+// Every call that finds a negative reduced cost makes that cell the current entering candidate.
+public interface PricingContext {
+    int rowCount();
+
+    int columnCount();
+
+    // Prices all non-basic cells in rows [fromRow, toRow) and keeps the most negative one as the entering candidate.
+    // Returns its reduced cost, or Integer.MAX_VALUE if every cell in the rows is basic. Solvers that let basic cells
+    // price at 0 may return 0 instead of a positive value when no cell improves.
+    int priceRows(int fromRow, int toRow);
+
+    // Stops at the first non-basic cell in rows [fromRow, toRow) with a negative reduced cost.
+    // Returns its reduced cost, or 0 if there is none.
+    int findNegativeInRows(int fromRow, int toRow);
+
+    boolean isBasic(int i, int j);
+
+    int reducedCost(int i, int j);
+
+    int enteringRow();
+
+    int enteringColumn();
+
+    void setEnteringCell(int i, int j);
+}
@@ -0,0 +1,10 @@
+package org.example;
+
+public interface PricingStrategy {
+    // Returns false if no cell with a negative reduced cost was found, i.e. the current solution is optimal
+    boolean selectEnteringCell(PricingContext context);
+
+    // Called at the start of every solve
+    default void reset() {
+    }
+}
@@ -0,0 +1,28 @@
+package org.example;
+
+import java.util.ArrayList;
+
+// Changed cells, supplies and demands of a problem, applied in the order they were added. Supply and demand changes
+// must keep the problem balanced.
+public class ProblemChange {
+    final ArrayList<int[]> costs = new ArrayList<>(), supplies = new ArrayList<>(), demands = new ArrayList<>();
+
+    public ProblemChange setCost(int i, int j, int cost) {
+        costs.add(new int[]{i, j, cost});
+        return this;
+    }
+
+    public ProblemChange setSupply(int i, int supply) {
+        supplies.add(new int[]{i, supply});
+        return this;
+    }
+
+    public ProblemChange setDemand(int j, int demand) {
+        demands.add(new int[]{j, demand});
+        return this;
+    }
+
+    public boolean changesAmounts() {
+        return !supplies.isEmpty() || !demands.isEmpty();
+    }
+}
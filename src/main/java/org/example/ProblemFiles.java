@@ -0,0 +1,130 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Binary problem and solution files, all little-endian ints.
+// Problem: magic "TPRB", version, m, n, m supplies, n demands, then the m x n costs row by row.
+// Allocation: magic "TPAL", version, m, n, count, then count (row, column, amount) triples of non-zero cells.
+// Basis: magic "TPBS", version, m, n, count, then count (row, column) pairs of basic cells.
+public class ProblemFiles {
+    static final int PROBLEM_MAGIC = 0x42525054, ALLOCATION_MAGIC = 0x4c415054, BASIS_MAGIC = 0x53425054, VERSION = 1;
+    static final int HEADER_BYTES = 16;
+
+    public static void write(TransportationProblem problem, Path path) {
+        try (ProblemWriter writer = new ProblemWriter(path, problem.supply, problem.demand)) {
+            for (int[] costRow : problem.cost)
+                writer.writeRow(costRow);
+        }
+    }
+
+    // Maps the costs instead of reading them; only supplies and demands are copied to the heap
+    public static MappedTransportationProblem map(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            IntBuffer header = read(channel, 0, HEADER_BYTES);
+            if (header.get(0) != PROBLEM_MAGIC || header.get(1) != VERSION)
+                throw new RuntimeException(path + " is not a transportation problem file");
+
+            int m = header.get(2), n = header.get(3);
+            long costStart = HEADER_BYTES + 4L * (m + n);
+            if (channel.size() != costStart + 4L * m * n)
+                throw new RuntimeException(path + " is truncated");
+
+            IntBuffer amounts = read(channel, HEADER_BYTES, 4 * (m + n));
+            int[] supply = new int[m], demand = new int[n];
+            amounts.get(supply).get(demand);
+            return new MappedTransportationProblem(channel, costStart, supply, demand);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Reads the whole problem into heap arrays, for files small enough to solve with the regular solvers
+    public static TransportationProblem read(Path path) {
+        MappedTransportationProblem mapped = map(path);
+        int[][] cost = new int[mapped.m][mapped.n];
+        for (int i = 0; i < mapped.m; ++i)
+            mapped.getCostRow(i, cost[i]);
+        return new TransportationProblem(cost, mapped.supply, mapped.demand);
+    }
+
+    public static SparseAllocation readAllocation(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            IntBuffer header = read(channel, 0, HEADER_BYTES + 4);
+            if (header.get(0) != ALLOCATION_MAGIC || header.get(1) != VERSION)
+                throw new RuntimeException(path + " is not an allocation file");
+
+            int count = header.get(4);
+            IntBuffer cells = read(channel, HEADER_BYTES + 4, 12 * count);
+            int[] rows = new int[count], cols = new int[count], amounts = new int[count];
+            for (int k = 0; k < count; ++k) {
+                rows[k] = cells.get();
+                cols[k] = cells.get();
+                amounts[k] = cells.get();
+            }
+            return new SparseAllocation(rows, cols, amounts);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Writes to a temporary file next to the target and moves it into place, so that a reader, or a run that resumes
+    // after a crash, never sees a half-written basis
+    public static void writeBasis(Basis basis, Path path) {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 4 + 8 * basis.size()).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(BASIS_MAGIC).putInt(VERSION).putInt(basis.m).putInt(basis.n).putInt(basis.size());
+        for (int k = 0; k < basis.size(); ++k)
+            buffer.putInt(basis.rows[k]).putInt(basis.cols[k]);
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static Basis readBasis(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            IntBuffer header = read(channel, 0, HEADER_BYTES + 4);
+            if (header.get(0) != BASIS_MAGIC || header.get(1) != VERSION)
+                throw new RuntimeException(path + " is not a basis file");
+
+            int m = header.get(2), n = header.get(3), count = header.get(4);
+            IntBuffer cells = read(channel, HEADER_BYTES + 4, 8 * count);
+            int[] rows = new int[count], cols = new int[count];
+            for (int k = 0; k < count; ++k) {
+                rows[k] = cells.get();
+                cols[k] = cells.get();
+            }
+            return new Basis(m, n, rows, cols);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static IntBuffer read(FileChannel channel, long position, int bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0)
+                throw new RuntimeException("Unexpected end of file");
+        }
+        return buffer.flip().asIntBuffer();
+    }
+}
@@ -0,0 +1,73 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Writes a problem file row by row, so that a cost matrix never has to be held in memory as a whole
+public class ProblemWriter implements AutoCloseable {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+    private final int m, n;
+    private int rowsWritten;
+
+    public ProblemWriter(Path path, int[] supply, int[] demand) {
+        this.m = supply.length;
+        this.n = demand.length;
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        putInt(ProblemFiles.PROBLEM_MAGIC);
+        putInt(ProblemFiles.VERSION);
+        putInt(m);
+        putInt(n);
+        for (int s : supply)
+            putInt(s);
+        for (int d : demand)
+            putInt(d);
+    }
+
+    public void writeRow(int[] costRow) {
+        if (rowsWritten == m)
+            throw new RuntimeException("All " + m + " rows have been written already");
+        for (int j = 0; j < n; ++j)
+            putInt(costRow[j]);
+        ++rowsWritten;
+    }
+
+    @Override
+    public void close() {
+        try {
+            flush();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (rowsWritten != m)
+            throw new RuntimeException("Only " + rowsWritten + " of " + m + " rows were written");
+    }
+
+    private void putInt(int value) {
+        if (!buffer.hasRemaining())
+            flush();
+        buffer.putInt(value);
+    }
+
+    private void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,26 @@
+package org.example;
+
+// Empties the rows in order, each into its cheapest columns that still have demand
+public class RowMinimumMethod implements InitialBasisMethod {
+    @Override
+    public void allocate(int[][] cost, int[] supply, int[] demand, BasicCells basicCells) {
+        int n = demand.length;
+
+        for (int i = 0; i < supply.length; ++i) {
+            while (supply[i] > 0) {
+                int minJ = -1;
+                for (int j = 0; j < n; ++j) {
+                    if (demand[j] > 0 && (minJ == -1 || cost[i][j] < cost[i][minJ]))
+                        minJ = j;
+                }
+                if (minJ == -1)
+                    throw new RuntimeException("Supplies do not match demands");
+
+                int amount = Math.min(supply[i], demand[minJ]);
+                basicCells.add(i, minJ, amount);
+                supply[i] -= amount;
+                demand[minJ] -= amount;
+            }
+        }
+    }
+}
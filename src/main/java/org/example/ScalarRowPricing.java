@@ -0,0 +1,23 @@
+package org.example;
+
+// Plain loops; the min reduction is simple enough for C2 to vectorise on its own
+class ScalarRowPricing implements FlatRowPricing {
+    static final ScalarRowPricing INSTANCE = new ScalarRowPricing();
+
+    @Override
+    public int rowMinimum(int[] rowCost, int offset, int ui, int[] v, int length) {
+        int rowDelta = 0;
+        for (int j = 0; j < length; ++j)
+            rowDelta = Math.min(rowDelta, rowCost[offset + j] - ui - v[j]);
+        return rowDelta;
+    }
+
+    @Override
+    public int columnOf(int[] rowCost, int offset, int ui, int[] v, int length, int delta) {
+        for (int j = 0; j < length; ++j) {
+            if (rowCost[offset + j] - ui - v[j] == delta)
+                return j;
+        }
+        return -1;
+    }
+}
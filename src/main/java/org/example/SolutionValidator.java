@@ -1,6 +1,7 @@
 package org.example;
 
 public class SolutionValidator {
+    // Cell-by-cell equality only; two different allocations can both be optimal, which SolutionVerifier can tell
     public static boolean compareSolutions(int[][] alloc1, int[][] alloc2) {
         if (alloc1.length != alloc2.length || alloc1[0].length != alloc2[0].length)
             return false;
@@ -13,4 +14,39 @@ public class SolutionValidator {
         }
         return true;
     }
+
+    // Checks that an allocation is non-negative and ships exactly every supply and demand. Solutions of different
+    // solvers may be different optima, so they are compared by feasibility and cost rather than cell by cell.
+    public static boolean isFeasible(TransportationProblem problem, int[][] allocation) {
+        int m = problem.supply.length, n = problem.demand.length;
+        if (allocation.length < m)
+            return false;
+
+        long[] columnSums = new long[n];
+        for (int i = 0; i < m; ++i) {
+            long rowSum = 0;
+            for (int j = 0; j < n; ++j) {
+                if (allocation[i][j] < 0)
+                    return false;
+                rowSum += allocation[i][j];
+                columnSums[j] += allocation[i][j];
+            }
+            if (rowSum != problem.supply[i])
+                return false;
+        }
+        for (int j = 0; j < n; ++j) {
+            if (columnSums[j] != problem.demand[j])
+                return false;
+        }
+        return true;
+    }
+
+    public static long totalCost(TransportationProblem problem, int[][] allocation) {
+        long totalCost = 0;
+        for (int i = 0; i < problem.supply.length; ++i) {
+            for (int j = 0; j < problem.demand.length; ++j)
+                totalCost += (long) allocation[i][j] * problem.cost[i][j];
+        }
+        return totalCost;
+    }
 }
@@ -0,0 +1,128 @@
+package org.example;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+// Checks a solution of a balanced problem in one pass over the cells, split into row chunks across threads:
+// feasibility, non-negative amounts and the cost with 64-bit sums, and, given the potentials the solver ended with,
+// dual feasibility and complementary slackness, which together certify optimality without solving again.
+// The executor is shared and never shut down here.
+public class SolutionVerifier {
+    protected final ExecutorService executor;
+    protected final int numThreads;
+
+    public SolutionVerifier() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SolutionVerifier(ExecutorService executor) {
+        this(executor, ChunkRunner.defaultParallelism(executor));
+    }
+
+    public SolutionVerifier(ExecutorService executor, int numThreads) {
+        if (numThreads <= 0)
+            throw new RuntimeException("Number of threads must be positive");
+        this.executor = executor;
+        this.numThreads = numThreads;
+    }
+
+    // u and v follow the convention of the solvers: the reduced cost of cell (i, j) is cost[i][j] - u[i] - v[j]
+    public VerificationReport verify(TransportationProblem problem, int[][] allocation, long[] u, long[] v) {
+        long startTime = System.nanoTime();
+        int m = problem.supply.length, n = problem.demand.length;
+        if (allocation.length < m || u.length < m || v.length < n)
+            throw new RuntimeException("Allocation or potentials do not match the size of the problem");
+        if (sum(problem.supply) != sum(problem.demand))
+            throw new RuntimeException("Only solutions of balanced problems can be verified");
+
+        boolean[] isRowFeasible = new boolean[numThreads], isNonNegative = new boolean[numThreads];
+        boolean[] isDualFeasible = new boolean[numThreads], isComplementary = new boolean[numThreads];
+        long[] chunkCost = new long[numThreads];
+        long[][] columnSums = new long[numThreads][n];
+        String[] violations = new String[numThreads];
+
+        new ChunkRunner(executor, numThreads).run(numThreads, t -> {
+            boolean rowsFeasible = true, nonNegative = true, dualFeasible = true, complementary = true;
+            long cost = 0;
+            long[] sums = columnSums[t];
+            String violation = null;
+            for (int i = ChunkRunner.chunkStart(0, m, t, numThreads); i < ChunkRunner.chunkStart(0, m, t + 1, numThreads); ++i) {
+                int[] allocationRow = allocation[i], costRow = problem.cost[i];
+                long rowSum = 0, ui = u[i];
+                for (int j = 0; j < n; ++j) {
+                    int amount = allocationRow[j];
+                    long reducedCost = costRow[j] - ui - v[j];
+                    rowSum += amount;
+                    sums[j] += amount;
+                    cost += (long) amount * costRow[j];
+
+                    if (amount < 0) {
+                        nonNegative = false;
+                        if (violation == null)
+                            violation = "cell (" + i + ", " + j + ") ships " + amount;
+                    }
+                    if (reducedCost < 0) {
+                        dualFeasible = false;
+                        if (violation == null)
+                            violation = "cell (" + i + ", " + j + ") has reduced cost " + reducedCost;
+                    }
+                    if (amount != 0 && reducedCost != 0) {
+                        complementary = false;
+                        if (violation == null)
+                            violation = "cell (" + i + ", " + j + ") ships " + amount + " at reduced cost " + reducedCost;
+                    }
+                }
+                if (rowSum != problem.supply[i]) {
+                    rowsFeasible = false;
+                    if (violation == null)
+                        violation = "row " + i + " ships " + rowSum + " of its supply " + problem.supply[i];
+                }
+            }
+            isRowFeasible[t] = rowsFeasible;
+            isNonNegative[t] = nonNegative;
+            isDualFeasible[t] = dualFeasible;
+            isComplementary[t] = complementary;
+            chunkCost[t] = cost;
+            violations[t] = violation;
+        });
+
+        boolean feasible = true, nonNegative = true, dualFeasible = true, complementary = true;
+        long cost = 0;
+        String violation = null;
+        for (int t = 0; t < numThreads; ++t) {
+            feasible &= isRowFeasible[t];
+            nonNegative &= isNonNegative[t];
+            dualFeasible &= isDualFeasible[t];
+            complementary &= isComplementary[t];
+            cost += chunkCost[t];
+            if (violation == null)
+                violation = violations[t];
+        }
+        for (int j = 0; j < n; ++j) {
+            long columnSum = 0;
+            for (int t = 0; t < numThreads; ++t)
+                columnSum += columnSums[t][j];
+            if (columnSum != problem.demand[j]) {
+                feasible = false;
+                if (violation == null)
+                    violation = "column " + j + " gets " + columnSum + " of its demand " + problem.demand[j];
+            }
+        }
+
+        long dualObjective = 0;
+        for (int i = 0; i < m; ++i)
+            dualObjective += problem.supply[i] * u[i];
+        for (int j = 0; j < n; ++j)
+            dualObjective += problem.demand[j] * v[j];
+
+        return new VerificationReport(feasible, nonNegative, dualFeasible, complementary, cost, dualObjective, violation,
+                System.nanoTime() - startTime);
+    }
+
+    private static long sum(int[] amounts) {
+        long total = 0;
+        for (int amount : amounts)
+            total += amount;
+        return total;
+    }
+}
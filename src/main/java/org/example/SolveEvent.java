@@ -0,0 +1,47 @@
+package org.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("org.example.Solve")
+@Label("Transportation Problem Solve")
+@Category("Transportation Problem")
+class SolveEvent extends Event {
+    @Label("Rows")
+    int rows;
+
+    @Label("Columns")
+    int columns;
+
+    @Label("Pivots")
+    int pivots;
+
+    @Label("Degenerate Pivots")
+    int degeneratePivots;
+
+    @Label("Cost")
+    long cost;
+
+    @Label("Initial Basis")
+    @Timespan(Timespan.NANOSECONDS)
+    long initialBasisTime;
+
+    @Label("Potentials")
+    @Timespan(Timespan.NANOSECONDS)
+    long potentialsTime;
+
+    @Label("Pricing")
+    @Timespan(Timespan.NANOSECONDS)
+    long pricingTime;
+
+    @Label("Cycle Search")
+    @Timespan(Timespan.NANOSECONDS)
+    long cycleSearchTime;
+
+    @Label("Allocation Update")
+    @Timespan(Timespan.NANOSECONDS)
+    long allocationUpdateTime;
+}
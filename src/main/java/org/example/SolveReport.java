@@ -0,0 +1,66 @@
+package org.example;
+
+import java.util.Arrays;
+
+public class SolveReport {
+    final int m, n, pivots, degeneratePivots, longestDegenerateRun, maxChainLength;
+    final long totalChainLength, cost;
+    final long[] phaseNanos, objectives;
+
+    SolveReport(int m, int n, int pivots, int degeneratePivots, int longestDegenerateRun, int maxChainLength,
+                long totalChainLength, long cost, long[] phaseNanos, long[] objectives) {
+        this.m = m;
+        this.n = n;
+        this.pivots = pivots;
+        this.degeneratePivots = degeneratePivots;
+        this.longestDegenerateRun = longestDegenerateRun;
+        this.maxChainLength = maxChainLength;
+        this.totalChainLength = totalChainLength;
+        this.cost = cost;
+        this.phaseNanos = phaseNanos;
+        this.objectives = objectives;
+    }
+
+    public int getPivots() {
+        return pivots;
+    }
+
+    public int getDegeneratePivots() {
+        return degeneratePivots;
+    }
+
+    // Longest run of consecutive pivots that did not change the objective
+    public int getLongestDegenerateRun() {
+        return longestDegenerateRun;
+    }
+
+    public int getMaxChainLength() {
+        return maxChainLength;
+    }
+
+    public double getAverageChainLength() {
+        return pivots == 0 ? 0 : (double) totalChainLength / pivots;
+    }
+
+    public long getPhaseNanos(SolverPhase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    // Objective after the initial basis followed by the objective after every pivot
+    public long[] getObjectives() {
+        return Arrays.copyOf(objectives, objectives.length);
+    }
+
+    public long getCost() {
+        return cost;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder phases = new StringBuilder();
+        for (SolverPhase phase : SolverPhase.values())
+            phases.append(", ").append(phase.name().toLowerCase()).append(' ').append(phaseNanos[phase.ordinal()] / 1_000_000).append("ms");
+        return m + "x" + n + ": " + pivots + " pivots (" + degeneratePivots + " degenerate, longest run " + longestDegenerateRun
+                + "), chain length avg " + String.format("%.1f", getAverageChainLength()) + " max " + maxChainLength + phases + ", cost " + cost;
+    }
+}
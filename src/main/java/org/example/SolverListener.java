@@ -0,0 +1,20 @@
+package org.example;
+
+// Receives progress of a solve. A solver without a listener does not take any timings for it.
+public interface SolverListener {
+    default void solveStarted(int m, int n) {
+    }
+
+    default void initialSolutionFound(long objective) {
+    }
+
+    default void phaseFinished(SolverPhase phase, long nanos) {
+    }
+
+    // amount is what was moved along the chain; 0 marks a degenerate pivot
+    default void pivotFinished(int pivot, int chainLength, int amount, long objective) {
+    }
+
+    default void solveFinished(int pivots, long cost) {
+    }
+}
@@ -0,0 +1,108 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-process registry shared by any number of solvers. Every solver gets its own listener(); finished solves are
+// added to the totals and the most recent one is kept as a SolveReport.
+public class SolverMetrics {
+    private final LongAdder solves = new LongAdder(), pivots = new LongAdder(), degeneratePivots = new LongAdder();
+    private final LongAdder[] phaseNanos = new LongAdder[SolverPhase.values().length];
+    private final LongAccumulator longestDegenerateRun = new LongAccumulator(Math::max, 0);
+    private volatile SolveReport lastSolve;
+
+    public SolverMetrics() {
+        for (int k = 0; k < phaseNanos.length; ++k)
+            phaseNanos[k] = new LongAdder();
+    }
+
+    public SolverListener listener() {
+        return new Recorder();
+    }
+
+    public long getSolveCount() {
+        return solves.sum();
+    }
+
+    public long getPivotCount() {
+        return pivots.sum();
+    }
+
+    public long getDegeneratePivotCount() {
+        return degeneratePivots.sum();
+    }
+
+    public long getLongestDegenerateRun() {
+        return longestDegenerateRun.get();
+    }
+
+    public long getPhaseNanos(SolverPhase phase) {
+        return phaseNanos[phase.ordinal()].sum();
+    }
+
+    public SolveReport getLastSolve() {
+        return lastSolve;
+    }
+
+    private void publish(SolveReport report) {
+        solves.increment();
+        pivots.add(report.pivots);
+        degeneratePivots.add(report.degeneratePivots);
+        longestDegenerateRun.accumulate(report.longestDegenerateRun);
+        for (int k = 0; k < phaseNanos.length; ++k)
+            phaseNanos[k].add(report.phaseNanos[k]);
+        lastSolve = report;
+    }
+
+    private class Recorder implements SolverListener {
+        private int m, n, degeneratePivots, degenerateRun, longestDegenerateRun, maxChainLength, objectiveCount;
+        private long totalChainLength;
+        private long[] phaseNanos, objectives;
+
+        @Override
+        public void solveStarted(int m, int n) {
+            this.m = m;
+            this.n = n;
+            degeneratePivots = degenerateRun = longestDegenerateRun = maxChainLength = objectiveCount = 0;
+            totalChainLength = 0;
+            phaseNanos = new long[SolverPhase.values().length];
+            objectives = new long[64];
+        }
+
+        @Override
+        public void initialSolutionFound(long objective) {
+            addObjective(objective);
+        }
+
+        @Override
+        public void phaseFinished(SolverPhase phase, long nanos) {
+            phaseNanos[phase.ordinal()] += nanos;
+        }
+
+        @Override
+        public void pivotFinished(int pivot, int chainLength, int amount, long objective) {
+            if (amount == 0) {
+                ++degeneratePivots;
+                longestDegenerateRun = Math.max(longestDegenerateRun, ++degenerateRun);
+            } else
+                degenerateRun = 0;
+
+            maxChainLength = Math.max(maxChainLength, chainLength);
+            totalChainLength += chainLength;
+            addObjective(objective);
+        }
+
+        @Override
+        public void solveFinished(int pivots, long cost) {
+            publish(new SolveReport(m, n, pivots, degeneratePivots, longestDegenerateRun, maxChainLength, totalChainLength,
+                    cost, phaseNanos, Arrays.copyOf(objectives, objectiveCount)));
+        }
+
+        private void addObjective(long objective) {
+            if (objectiveCount == objectives.length)
+                objectives = Arrays.copyOf(objectives, 2 * objectiveCount);
+            objectives[objectiveCount++] = objective;
+        }
+    }
+}
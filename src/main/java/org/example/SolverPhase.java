@@ -0,0 +1,9 @@
+package org.example;
+
+public enum SolverPhase {
+    INITIAL_BASIS,
+    POTENTIALS,
+    PRICING,
+    CYCLE_SEARCH,
+    ALLOCATION_UPDATE
+}
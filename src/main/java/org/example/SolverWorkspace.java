@@ -0,0 +1,21 @@
+package org.example;
+
+// Reusable solver buffers that grow to the largest problem they have been used for
+class SolverWorkspace {
+    int[][] allocation = new int[0][0];
+    boolean[][] basic = new boolean[0][0];
+    int[] u = new int[0], v = new int[0];
+    BasisTree basis;
+
+    void ensureCapacity(int m, int n) {
+        if (allocation.length < m || allocation[0].length < n) {
+            int rows = Math.max(m, allocation.length), cols = Math.max(n, allocation.length == 0 ? 0 : allocation[0].length);
+            allocation = new int[rows][cols];
+            basic = new boolean[rows][cols];
+        }
+        if (u.length < m)
+            u = new int[m];
+        if (v.length < n)
+            v = new int[n];
+    }
+}
@@ -0,0 +1,28 @@
+package org.example;
+
+// Non-zero cells of a solution as parallel (row, column, amount) arrays
+public class SparseAllocation {
+    final int[] rows, cols, amounts;
+
+    SparseAllocation(int[] rows, int[] cols, int[] amounts) {
+        this.rows = rows;
+        this.cols = cols;
+        this.amounts = amounts;
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    public int getRow(int k) {
+        return rows[k];
+    }
+
+    public int getColumn(int k) {
+        return cols[k];
+    }
+
+    public int getAmount(int k) {
+        return amounts[k];
+    }
+}
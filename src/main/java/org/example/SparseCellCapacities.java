@@ -0,0 +1,47 @@
+package org.example;
+
+import java.util.Arrays;
+
+// Capacities of the few capacitated cells in compressed sparse row form, with the columns of row i in
+// cellCol[rowStart[i]..rowStart[i + 1]) ascending. All other cells are unlimited.
+public class SparseCellCapacities implements CellCapacities {
+    final int[] rowStart, cellCol, cellCapacity;
+
+    SparseCellCapacities(int[] rowStart, int[] cellCol, int[] cellCapacity) {
+        this.rowStart = rowStart;
+        this.cellCol = cellCol;
+        this.cellCapacity = cellCapacity;
+    }
+
+    public static SparseCellCapacities fromCells(int m, int[] rows, int[] cols, int[] capacities) {
+        int count = rows.length;
+        int[] rowStart = new int[m + 1];
+        for (int row : rows)
+            ++rowStart[row + 1];
+        for (int i = 0; i < m; ++i)
+            rowStart[i + 1] += rowStart[i];
+
+        int[] next = Arrays.copyOf(rowStart, m);
+        long[] keys = new long[count];
+        for (int k = 0; k < count; ++k)
+            keys[next[rows[k]]++] = (long) cols[k] << 32 | k;
+
+        int[] cellCol = new int[count], cellCapacity = new int[count];
+        for (int i = 0; i < m; ++i) {
+            Arrays.sort(keys, rowStart[i], rowStart[i + 1]);
+            for (int k = rowStart[i]; k < rowStart[i + 1]; ++k) {
+                cellCol[k] = (int) (keys[k] >>> 32);
+                cellCapacity[k] = capacities[(int) keys[k]];
+                if (k > rowStart[i] && cellCol[k] == cellCol[k - 1])
+                    throw new RuntimeException("Duplicate capacity for cell (" + i + ", " + cellCol[k] + ")");
+            }
+        }
+        return new SparseCellCapacities(rowStart, cellCol, cellCapacity);
+    }
+
+    @Override
+    public int capacity(int i, int j) {
+        int k = Arrays.binarySearch(cellCol, rowStart[i], rowStart[i + 1], j);
+        return k >= 0 ? cellCapacity[k] : UNLIMITED;
+    }
+}
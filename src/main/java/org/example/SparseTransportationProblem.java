@@ -0,0 +1,84 @@
+package org.example;
+
+import java.util.Arrays;
+
+// Transportation problem where only permitted lanes have a cost. Lanes are stored in compressed sparse row form:
+// the lanes of row i are laneCol[rowStart[i]..rowStart[i + 1]) with ascending columns and costs in laneCost.
+public class SparseTransportationProblem {
+    final int m, n;
+    final int[] rowStart, laneCol, laneCost;
+    final int[] supply, demand;
+
+    SparseTransportationProblem(int[] rowStart, int[] laneCol, int[] laneCost, int[] supply, int[] demand) {
+        this.m = supply.length;
+        this.n = demand.length;
+        this.rowStart = rowStart;
+        this.laneCol = laneCol;
+        this.laneCost = laneCost;
+        this.supply = supply;
+        this.demand = demand;
+
+        if (rowStart.length != m + 1 || laneCol.length != rowStart[m] || laneCost.length != rowStart[m])
+            throw new RuntimeException("Lane arrays do not match the number of rows");
+    }
+
+    public static SparseTransportationProblem fromLanes(int[] rows, int[] cols, int[] costs, int[] supply, int[] demand) {
+        int m = supply.length, laneCount = rows.length;
+        int[] rowStart = new int[m + 1];
+        for (int row : rows)
+            ++rowStart[row + 1];
+        for (int i = 0; i < m; ++i)
+            rowStart[i + 1] += rowStart[i];
+
+        int[] next = Arrays.copyOf(rowStart, m);
+        long[] keys = new long[laneCount];
+        for (int k = 0; k < laneCount; ++k)
+            keys[next[rows[k]]++] = (long) cols[k] << 32 | k;
+
+        int[] laneCol = new int[laneCount], laneCost = new int[laneCount];
+        for (int i = 0; i < m; ++i) {
+            Arrays.sort(keys, rowStart[i], rowStart[i + 1]);
+            for (int k = rowStart[i]; k < rowStart[i + 1]; ++k) {
+                laneCol[k] = (int) (keys[k] >>> 32);
+                laneCost[k] = costs[(int) keys[k]];
+                if (k > rowStart[i] && laneCol[k] == laneCol[k - 1])
+                    throw new RuntimeException("Duplicate lane (" + i + ", " + laneCol[k] + ")");
+            }
+        }
+        return new SparseTransportationProblem(rowStart, laneCol, laneCost, supply, demand);
+    }
+
+    // Keeps the cells of a dense problem whose cost is below forbiddenCost
+    public static SparseTransportationProblem fromDense(TransportationProblem problem, int forbiddenCost) {
+        int m = problem.supply.length, n = problem.demand.length;
+        int[] rowStart = new int[m + 1];
+        for (int i = 0; i < m; ++i) {
+            rowStart[i + 1] = rowStart[i];
+            for (int j = 0; j < n; ++j) {
+                if (problem.cost[i][j] < forbiddenCost)
+                    ++rowStart[i + 1];
+            }
+        }
+
+        int[] laneCol = new int[rowStart[m]], laneCost = new int[rowStart[m]];
+        for (int i = 0, k = 0; i < m; ++i) {
+            for (int j = 0; j < n; ++j) {
+                if (problem.cost[i][j] < forbiddenCost) {
+                    laneCol[k] = j;
+                    laneCost[k++] = problem.cost[i][j];
+                }
+            }
+        }
+        return new SparseTransportationProblem(rowStart, laneCol, laneCost, problem.supply, problem.demand);
+    }
+
+    public int laneCount() {
+        return rowStart[m];
+    }
+
+    // Index of lane (i, j), or -1 if the lane is not permitted
+    int findLane(int i, int j) {
+        int lane = Arrays.binarySearch(laneCol, rowStart[i], rowStart[i + 1], j);
+        return lane >= 0 ? lane : -1;
+    }
+}
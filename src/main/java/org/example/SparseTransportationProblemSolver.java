@@ -0,0 +1,286 @@
+package org.example;
+
+// Transportation simplex over a SparseTransportationProblem. Only the m + n - 1 basic cells are stored: their
+// lane, cost and amount live in arrays indexed by BasisTree edge. Cells that the northwest corner start needs
+// but which are not permitted lanes enter the basis as artificial cells with a prohibitive cost.
+public class SparseTransportationProblemSolver implements PricingContext {
+    protected final int m, n;
+    protected final SparseTransportationProblem problem;
+    protected final int[] supply, demand;
+    protected final long[] u, v;
+    protected final BasisTree basis;
+    protected final int[] edgeLane, edgeAmount;
+    protected final long[] edgeCost;
+    protected final boolean[] laneBasic;
+    protected final long artificialCost;
+    protected int minI, minJ, enteringLane;
+    protected PricingStrategy pricingStrategy = new DantzigPricing();
+    protected int pivotCount;
+    protected long pricingTimeNanos;
+    protected final int ARTIFICIAL = -1;
+
+    public SparseTransportationProblemSolver(SparseTransportationProblem problem) {
+        this.m = problem.m;
+        this.n = problem.n;
+        this.problem = problem;
+        this.supply = problem.supply;
+        this.demand = problem.demand;
+        this.u = new long[m];
+        this.v = new long[n];
+        this.basis = new BasisTree(m, n);
+        this.edgeLane = new int[m + n];
+        this.edgeAmount = new int[m + n];
+        this.edgeCost = new long[m + n];
+        this.laneBasic = new boolean[problem.laneCount()];
+
+        long supplySum = 0, demandSum = 0;
+        for (int s : supply)
+            supplySum += s;
+        for (int d : demand)
+            demandSum += d;
+        if (supplySum != demandSum)
+            throw new RuntimeException("Supplies do not match demands");
+
+        // a unit moved off the artificial cells saves more than any path of permitted lanes can cost; potentials
+        // stay within m + n artificial costs of each other
+        long maxCost = 0;
+        for (int c : problem.laneCost)
+            maxCost = Math.max(maxCost, Math.abs((long) c));
+        this.artificialCost = (m + n + 2) * (maxCost + 1);
+        try {
+            Math.multiplyExact(artificialCost, (long) m + n);
+        } catch (ArithmeticException e) {
+            throw new RuntimeException("Costs of the problem overflow 64-bit potentials");
+        }
+    }
+
+    public void solve() {
+        pivotCount = 0;
+        pricingTimeNanos = 0;
+        pricingStrategy.reset();
+
+        northwestCornerMethod();
+        computePotentials();
+        while (true) {
+            long startTime = System.nanoTime();
+            boolean isImproving = pricingStrategy.selectEnteringCell(this);
+            pricingTimeNanos += System.nanoTime() - startTime;
+            if (!isImproving)
+                break;
+
+            ++pivotCount;
+            pivot();
+        }
+
+        for (int node = 1; node < basis.nodeCount; ++node) {
+            int e = basis.parentEdge[node];
+            if (edgeLane[e] == ARTIFICIAL && edgeAmount[e] > 0)
+                throw new RuntimeException("Supplies cannot be delivered over the permitted lanes");
+        }
+    }
+
+    protected void northwestCornerMethod() {
+        basis.clear();
+        int i = 0, j = 0;
+        int remainingSupply = supply[0], remainingDemand = demand[0];
+
+        while (true) {
+            int amount = Math.min(remainingSupply, remainingDemand);
+            addBasicCell(i, j, amount);
+            remainingSupply -= amount;
+            remainingDemand -= amount;
+
+            if (i == m - 1 && j == n - 1)
+                break;
+            if (j == n - 1 || (i < m - 1 && remainingSupply == 0 && remainingDemand > 0))
+                remainingSupply = supply[++i];
+            else
+                remainingDemand = demand[++j];
+        }
+    }
+
+    private void addBasicCell(int i, int j, int amount) {
+        int e = basis.addEdge(i, j);
+        int lane = problem.findLane(i, j);
+        edgeLane[e] = lane;
+        edgeCost[e] = lane == ARTIFICIAL ? artificialCost : problem.laneCost[lane];
+        edgeAmount[e] = amount;
+        if (lane != ARTIFICIAL)
+            laneBasic[lane] = true;
+    }
+
+    protected void computePotentials() {
+        int labelled = basis.traverse();
+        if (labelled != m + n)
+            throw new RuntimeException("Basis does not span all rows and columns");
+        labelPotentials(labelled);
+    }
+
+    protected void labelPotentials(int count) {
+        for (int k = 0; k < count; ++k) {
+            int node = basis.order[k];
+            int e = basis.parentEdge[node];
+            if (e == BasisTree.NONE) {
+                u[node] = 0;
+                continue;
+            }
+
+            if (basis.isRow(node))
+                u[node] = edgeCost[e] - v[basis.edgeCol[e]];
+            else
+                v[node - m] = edgeCost[e] - u[basis.edgeRow[e]];
+        }
+    }
+
+    protected void pivot() {
+        int length = basis.findCycle(minI, minJ);
+
+        int leavingEdge = BasisTree.NONE, minAmount = Integer.MAX_VALUE;
+        for (int k = 0; k < length; k += 2) {
+            int e = basis.cycle[k];
+            if (edgeAmount[e] < minAmount) {
+                minAmount = edgeAmount[e];
+                leavingEdge = e;
+            }
+        }
+
+        for (int k = 0; k < length; ++k)
+            edgeAmount[basis.cycle[k]] += k % 2 == 0 ? -minAmount : minAmount;
+
+        if (edgeLane[leavingEdge] != ARTIFICIAL)
+            laneBasic[edgeLane[leavingEdge]] = false;
+
+        int relabelled = basis.pivot(minI, minJ, leavingEdge);
+        // the root of the relabelled subtree hangs on the entering edge
+        int enteringEdge = basis.parentEdge[basis.order[0]];
+        edgeLane[enteringEdge] = enteringLane;
+        edgeCost[enteringEdge] = problem.laneCost[enteringLane];
+        edgeAmount[enteringEdge] = minAmount;
+        laneBasic[enteringLane] = true;
+        labelPotentials(relabelled);
+    }
+
+    @Override
+    public int priceRows(int fromRow, int toRow) {
+        long minDelta = Long.MAX_VALUE;
+        for (int i = fromRow; i < toRow; ++i) {
+            for (int lane = problem.rowStart[i]; lane < problem.rowStart[i + 1]; ++lane) {
+                if (laneBasic[lane])
+                    continue;
+
+                long delta = problem.laneCost[lane] - (u[i] + v[problem.laneCol[lane]]);
+                if (delta < minDelta) {
+                    minDelta = delta;
+                    minI = i;
+                    minJ = problem.laneCol[lane];
+                    enteringLane = lane;
+                }
+            }
+        }
+        return saturate(minDelta);
+    }
+
+    @Override
+    public int findNegativeInRows(int fromRow, int toRow) {
+        for (int i = fromRow; i < toRow; ++i) {
+            for (int lane = problem.rowStart[i]; lane < problem.rowStart[i + 1]; ++lane) {
+                long delta = problem.laneCost[lane] - (u[i] + v[problem.laneCol[lane]]);
+                if (!laneBasic[lane] && delta < 0) {
+                    minI = i;
+                    minJ = problem.laneCol[lane];
+                    enteringLane = lane;
+                    return saturate(delta);
+                }
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int rowCount() {
+        return m;
+    }
+
+    @Override
+    public int columnCount() {
+        return n;
+    }
+
+    // Cells that are not permitted lanes are never candidates, so they are reported as basic
+    @Override
+    public boolean isBasic(int i, int j) {
+        int lane = problem.findLane(i, j);
+        return lane == ARTIFICIAL || laneBasic[lane];
+    }
+
+    @Override
+    public int reducedCost(int i, int j) {
+        int lane = problem.findLane(i, j);
+        return lane == ARTIFICIAL ? Integer.MAX_VALUE : saturate(problem.laneCost[lane] - (u[i] + v[j]));
+    }
+
+    @Override
+    public int enteringRow() {
+        return minI;
+    }
+
+    @Override
+    public int enteringColumn() {
+        return minJ;
+    }
+
+    @Override
+    public void setEnteringCell(int i, int j) {
+        int lane = problem.findLane(i, j);
+        if (lane == ARTIFICIAL)
+            throw new RuntimeException("Cell (" + i + ", " + j + ") is not a permitted lane");
+        minI = i;
+        minJ = j;
+        enteringLane = lane;
+    }
+
+    public void setPricingStrategy(PricingStrategy pricingStrategy) {
+        this.pricingStrategy = pricingStrategy;
+    }
+
+    public int getPivotCount() {
+        return pivotCount;
+    }
+
+    public long getPricingTimeNanos() {
+        return pricingTimeNanos;
+    }
+
+    public SparseAllocation getAllocation() {
+        int count = 0;
+        for (int node = 1; node < basis.nodeCount; ++node) {
+            if (edgeAmount[basis.parentEdge[node]] > 0)
+                ++count;
+        }
+
+        int[] rows = new int[count], cols = new int[count], amounts = new int[count];
+        count = 0;
+        for (int node = 1; node < basis.nodeCount; ++node) {
+            int e = basis.parentEdge[node];
+            if (edgeAmount[e] > 0) {
+                rows[count] = basis.edgeRow[e];
+                cols[count] = basis.edgeCol[e];
+                amounts[count++] = edgeAmount[e];
+            }
+        }
+        return new SparseAllocation(rows, cols, amounts);
+    }
+
+    public long getCost() {
+        long totalCost = 0;
+        for (int node = 1; node < basis.nodeCount; ++node) {
+            int e = basis.parentEdge[node];
+            totalCost += (long) edgeAmount[e] * edgeCost[e];
+        }
+        return totalCost;
+    }
+
+    private static int saturate(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+}
@@ -1,46 +1,251 @@
 package org.example;
 
-import java.util.Random;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
+// Reproducible random problems for tests and benchmarks. Supplies, demands and coordinates come from one stream
+// seeded with the problem seed; every cost row then draws from its own SplittableRandom whose seed is taken from
+// that stream, so rows can be filled concurrently and in any order and still come out the same for a given seed.
+// Problems are built on the heap with generate() or written straight to a problem file with write().
 public class TransportationProblemGenerator {
+    public enum CostModel {
+        // Costs drawn uniformly from 1..maxCost
+        UNIFORM,
+        // Distance between random points for sources and destinations in the unit square, scaled to 1..maxCost
+        EUCLIDEAN,
+        // Like EUCLIDEAN, with the sources gathered around a few random centres
+        CLUSTERED
+    }
+
+    // rows filled per thread before write() hands them to the writer
+    protected static final int ROWS_PER_CHUNK = 64;
+    protected static final double CLUSTER_SPREAD = 0.05;
+
+    protected final int m, n;
+    protected final long seed;
+    protected int maxCost = 10, maxSupply = 100, maxDemand = 100;
+    protected CostModel costModel = CostModel.UNIFORM;
+    protected int clusterCount = 8;
+    protected double laneDensity = 1;
+    protected int forbiddenCost = Integer.MAX_VALUE;
+    protected ExecutorService executor = ForkJoinPool.commonPool();
+    protected int numThreads = ChunkRunner.defaultParallelism(executor);
+
+    private int[] supply, demand;
+    private long[] rowSeeds;
+    private double[] sourceX, sourceY, destinationX, destinationY;
+    private int[] stairStart, stairEnd;
+
+    public TransportationProblemGenerator(int m, int n, long seed) {
+        if (m <= 0 || n <= 0)
+            throw new RuntimeException("Problem needs at least one row and one column");
+        this.m = m;
+        this.n = n;
+        this.seed = seed;
+    }
+
+    // Uniform costs with supplies in 1..maxSupply - 1 and demands in 1..maxDemand - 1 before balancing
     public static TransportationProblem generate(int m, int n, int maxCost, int maxSupply, int maxDemand, long seed) {
-        Random rand = new Random(seed);
+        TransportationProblemGenerator generator = new TransportationProblemGenerator(m, n, seed);
+        generator.setMaxCost(maxCost);
+        generator.setAmounts(maxSupply, maxDemand);
+        return generator.generate();
+    }
+
+    public TransportationProblem generate() {
+        prepare();
         int[][] cost = new int[m][n];
-        int[] supply = new int[m];
-        int[] demand = new int[n];
+        new ChunkRunner(executor, numThreads).run(numThreads, t -> {
+            for (int i = ChunkRunner.chunkStart(0, m, t, numThreads); i < ChunkRunner.chunkStart(0, m, t + 1, numThreads); ++i)
+                fillRow(i, cost[i]);
+        });
+        return new TransportationProblem(cost, supply, demand);
+    }
 
-        for (int i = 0; i < m; ++i) {
-            for (int j = 0; j < n; ++j)
-                cost[i][j] = rand.nextInt(maxCost) + 1;
+    // Same problem as generate(), written to a problem file without holding more than a chunk of rows per thread
+    public void write(Path path) {
+        prepare();
+        int chunkRows = ROWS_PER_CHUNK * numThreads;
+        int[][] rows = new int[Math.min(chunkRows, m)][n];
+        ChunkRunner runner = new ChunkRunner(executor, numThreads);
+        try (ProblemWriter writer = new ProblemWriter(path, supply, demand)) {
+            for (int first = 0; first < m; first += chunkRows) {
+                int from = first, to = Math.min(m, first + chunkRows);
+                runner.run(numThreads, t -> {
+                    for (int i = ChunkRunner.chunkStart(from, to, t, numThreads); i < ChunkRunner.chunkStart(from, to, t + 1, numThreads); ++i)
+                        fillRow(i, rows[i - from]);
+                });
+                for (int i = from; i < to; ++i)
+                    writer.writeRow(rows[i - from]);
+            }
         }
+    }
 
-        int totalSupply = 0, totalDemand = 0;
+    public void setMaxCost(int maxCost) {
+        if (maxCost < 1)
+            throw new RuntimeException("Maximum cost must be positive");
+        this.maxCost = maxCost;
+    }
+
+    public void setAmounts(int maxSupply, int maxDemand) {
+        if (maxSupply < 2 || maxDemand < 2)
+            throw new RuntimeException("Maximum supply and demand must be at least 2");
+        this.maxSupply = maxSupply;
+        this.maxDemand = maxDemand;
+    }
+
+    public void setCostModel(CostModel costModel) {
+        this.costModel = costModel;
+    }
+
+    public void setClusterCount(int clusterCount) {
+        if (clusterCount < 1)
+            throw new RuntimeException("Number of clusters must be positive");
+        this.clusterCount = clusterCount;
+    }
+
+    // Keeps each lane with the given probability and gives the others forbiddenCost. The lanes of the northwest
+    // corner staircase are always kept, so the problem stays feasible over the permitted lanes.
+    public void setLaneDensity(double laneDensity, int forbiddenCost) {
+        if (!(laneDensity > 0 && laneDensity <= 1))
+            throw new RuntimeException("Lane density must be in (0, 1]");
+        this.laneDensity = laneDensity;
+        this.forbiddenCost = forbiddenCost;
+    }
+
+    public void setExecutor(ExecutorService executor, int numThreads) {
+        if (numThreads <= 0)
+            throw new RuntimeException("Number of threads must be positive");
+        this.executor = executor;
+        this.numThreads = numThreads;
+    }
+
+    // Everything that is not a cost row: amounts, coordinates, row seeds and the staircase, all O(m + n)
+    protected void prepare() {
+        SplittableRandom random = new SplittableRandom(seed);
+        supply = new int[m];
+        demand = new int[n];
+        for (int i = 0; i < m; ++i)
+            supply[i] = random.nextInt(1, maxSupply);
+        for (int j = 0; j < n; ++j)
+            demand[j] = random.nextInt(1, maxDemand);
+        balance(supply, demand);
+
+        if (costModel != CostModel.UNIFORM) {
+            sourceX = new double[m];
+            sourceY = new double[m];
+            destinationX = new double[n];
+            destinationY = new double[n];
+            placeSources(random);
+            for (int j = 0; j < n; ++j) {
+                destinationX[j] = random.nextDouble();
+                destinationY[j] = random.nextDouble();
+            }
+        }
+
+        rowSeeds = new long[m];
+        for (int i = 0; i < m; ++i)
+            rowSeeds[i] = random.nextLong();
+
+        if (laneDensity < 1)
+            computeStaircase();
+    }
+
+    private void placeSources(SplittableRandom random) {
+        if (costModel == CostModel.EUCLIDEAN) {
+            for (int i = 0; i < m; ++i) {
+                sourceX[i] = random.nextDouble();
+                sourceY[i] = random.nextDouble();
+            }
+            return;
+        }
+
+        double[] centreX = new double[clusterCount], centreY = new double[clusterCount];
+        for (int c = 0; c < clusterCount; ++c) {
+            centreX[c] = random.nextDouble();
+            centreY[c] = random.nextDouble();
+        }
         for (int i = 0; i < m; ++i) {
-            supply[i] = rand.nextInt(maxSupply - 1) + 1;
-            totalSupply += supply[i];
+            int c = random.nextInt(clusterCount);
+            sourceX[i] = clamp(centreX[c] + CLUSTER_SPREAD * random.nextGaussian());
+            sourceY[i] = clamp(centreY[c] + CLUSTER_SPREAD * random.nextGaussian());
         }
-        for (int j = 0; j < n; ++j) {
-            demand[j] = rand.nextInt(maxDemand - 1) + 1;
-            totalDemand += demand[j];
-        }
-
-        int balance = totalSupply - totalDemand;
-        while (balance != 0) {
-            if (balance > 0) {
-                int i = rand.nextInt(m);
-                if (supply[i] > 1) {
-                    --supply[i];
-                    --balance;
-                }
-            } else {
-                int j = rand.nextInt(n);
-                if (demand[j] > 1) {
-                    --demand[j];
-                    ++balance;
-                }
+    }
+
+    private static double clamp(double coordinate) {
+        return Math.max(0, Math.min(1, coordinate));
+    }
+
+    // Scales the side with the larger total down to the other total in one pass. Every amount keeps at least 1 as
+    // long as the smaller total allows it; what rounding leaves over goes one unit each to the first amounts.
+    static void balance(int[] supply, int[] demand) {
+        long totalSupply = 0, totalDemand = 0;
+        for (int s : supply)
+            totalSupply += s;
+        for (int d : demand)
+            totalDemand += d;
+
+        if (totalSupply > totalDemand)
+            scaleTo(supply, totalSupply, totalDemand);
+        else if (totalDemand > totalSupply)
+            scaleTo(demand, totalDemand, totalSupply);
+    }
+
+    private static void scaleTo(int[] amounts, long total, long target) {
+        int floor = target >= amounts.length ? 1 : 0;
+        double ratio = (double) (target - (long) floor * amounts.length) / (total - (long) floor * amounts.length);
+
+        long assigned = 0;
+        for (int k = 0; k < amounts.length; ++k) {
+            amounts[k] = floor + (int) Math.min(amounts[k] - floor, (long) ((amounts[k] - floor) * ratio));
+            assigned += amounts[k];
+        }
+        // the double ratio may round either way, so the correction can go in both directions
+        for (int k = 0; assigned < target; k = (k + 1) % amounts.length, ++assigned)
+            ++amounts[k];
+        for (int k = 0; assigned > target; k = (k + 1) % amounts.length) {
+            if (amounts[k] > floor) {
+                --amounts[k];
+                --assigned;
             }
         }
+    }
 
-        return new TransportationProblem(cost, supply, demand);
+    // Columns stairStart[i]..stairEnd[i] are the cells of row i that the northwest corner start allocates
+    private void computeStaircase() {
+        stairStart = new int[m];
+        stairEnd = new int[m];
+        int i = 0, j = 0;
+        int remainingSupply = supply[0], remainingDemand = demand[0];
+        while (true) {
+            int amount = Math.min(remainingSupply, remainingDemand);
+            remainingSupply -= amount;
+            remainingDemand -= amount;
+            stairEnd[i] = j;
+
+            if (i == m - 1 && j == n - 1)
+                break;
+            if (j == n - 1 || (i < m - 1 && remainingSupply == 0)) {
+                remainingSupply = supply[++i];
+                stairStart[i] = j;
+            } else
+                remainingDemand = demand[++j];
+        }
+    }
+
+    protected void fillRow(int i, int[] row) {
+        SplittableRandom random = new SplittableRandom(rowSeeds[i]);
+        for (int j = 0; j < n; ++j) {
+            int cost = costModel == CostModel.UNIFORM ? random.nextInt(1, maxCost + 1) : distanceCost(i, j);
+            boolean isPermitted = laneDensity == 1 || (j >= stairStart[i] && j <= stairEnd[i]) || random.nextDouble() < laneDensity;
+            row[j] = isPermitted ? cost : forbiddenCost;
+        }
+    }
+
+    private int distanceCost(int i, int j) {
+        double distance = Math.hypot(sourceX[i] - destinationX[j], sourceY[i] - destinationY[j]);
+        return 1 + (int) Math.round(distance / Math.sqrt(2) * (maxCost - 1));
     }
 }
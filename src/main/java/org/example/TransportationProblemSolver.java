@@ -1,169 +1,965 @@
 package org.example;
 
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.Stack;
 
-public class TransportationProblemSolver {
-    protected final int m, n;
+public class TransportationProblemSolver implements PricingContext, TransportationSolver {
+    protected final TransportationProblem problem;
+    protected final int m, n, costColumns;
+    protected final int dummyRow, dummyColumn;
     protected final int[][] cost, allocation;
+    // basis membership, kept apart from the amounts: a basic cell may ship 0 and a non-basic one always ships 0
+    protected final boolean[][] basic;
     protected final int[] supply, demand;
+    // Amounts of the problem as last changed by resolve(), without the dummy node. They and cost[][] belong to the
+    // solver: cost[][] shares the rows of the problem until setCost() copies one, so changes never reach the caller.
+    protected final int[] problemSupply, problemDemand;
+    protected final int[] shortagePenalty, overflowPenalty;
     protected final int[] u, v;
-    protected final int[][] delta;
-    protected Chain chain;
+    protected final BasisTree basis;
+    // Cells of the chain of the current pivot, entering cell first. Signs alternate along it: cells at even
+    // positions gain the step, cells at odd positions give it up.
+    protected final int[] chainRows, chainCols;
+    protected int chainLength;
     protected int minI, minJ;
     protected boolean isCurrentSolutionOptimal;
-    protected final int NOT_ALLOCATED = -1, NO_SUPPLY = Integer.MAX_VALUE, NO_DEMAND = Integer.MAX_VALUE, UNDEFINED = Integer.MIN_VALUE;
+    protected CycleSearch cycleSearch = CycleSearch.SPANNING_TREE;
+    protected MatrixLayout matrixLayout = MatrixLayout.NESTED;
+    protected int[] flatCost, incidentEdges;
+    // visited marks of the depth-first cycle search: a cell counts as visited if it carries the current epoch
+    protected int[][] visitedEpoch;
+    protected int epoch;
+    protected FlatRowPricing rowPricing = FlatRowPricing.scalar();
+    protected PricingStrategy pricingStrategy = new DantzigPricing();
+    protected InitialBasisMethod initialBasisMethod;
+    protected long initialCost;
+    protected int pivotCount, degeneratePivotCount, stepSize;
+    protected int leavingI, leavingJ;
+    protected int stallLimit = DEFAULT_STALL_LIMIT, stalledPivots, blandPivotCount;
+    protected SolverListener listener;
+    // a solve stops early, with the current feasible allocation, on cancel() or when the time limit runs out
+    protected volatile boolean isCancelled;
+    protected long timeLimitNanos, deadlineNanos;
+    protected Path checkpointPath;
+    protected long checkpointIntervalNanos, lastCheckpointNanos;
+    protected long pricingTimeNanos;
+    protected int repairPivotCount;
+    protected long[] edgeFlow;
+    protected int[] subtree;
+    protected boolean[] inSubtree;
+    // largest cost magnitude whose potentials and reduced costs cannot overflow an int, like the bound the wide
+    // solver checks for long: potentials are alternating sums of at most m + n - 1 costs
+    protected final int costLimit;
+    protected final int NO_DUMMY = -1;
+    protected static final int DEFAULT_STALL_LIMIT = 50;
 
     public TransportationProblemSolver(TransportationProblem problem) {
-        this.m = problem.supply.length;
-        this.n = problem.demand.length;
-        this.cost = problem.cost;
-        this.supply = Arrays.copyOf(problem.supply, m);
-        this.demand = Arrays.copyOf(problem.demand, n);
-        this.allocation = new int[m][n];
+        this(problem, null);
+    }
+
+    // Solves in the buffers of a workspace, which must not be used by another solver at the same time. Getters that
+    // expose buffers, like getAllocation(), then return arrays that may be larger than the problem.
+    TransportationProblemSolver(TransportationProblem problem, SolverWorkspace workspace) {
+        this.problem = problem;
+
+        // Unbalanced problems get an implicit dummy node as the last row or column: a dummy column takes the supply
+        // that is left over, a dummy row stands in for unmet demand. Its costs are the penalties and are never part
+        // of cost[][], which keeps its original size.
+        long imbalance = sum(problem.supply, problem.supply.length) - sum(problem.demand, problem.demand.length);
+        this.dummyRow = imbalance < 0 ? problem.supply.length : NO_DUMMY;
+        this.dummyColumn = imbalance > 0 ? problem.demand.length : NO_DUMMY;
+        this.m = problem.supply.length + (dummyRow == NO_DUMMY ? 0 : 1);
+        this.n = problem.demand.length + (dummyColumn == NO_DUMMY ? 0 : 1);
+        this.costColumns = problem.demand.length;
+        this.cost = problem.cost == null ? null : problem.cost.clone();
+        this.problemSupply = problem.supply.clone();
+        this.problemDemand = problem.demand.clone();
+        this.supply = new int[m];
+        this.demand = new int[n];
+        this.shortagePenalty = new int[n];
+        this.overflowPenalty = new int[m];
+        this.costLimit = (int) (Integer.MAX_VALUE / (2L * (m + n) + 1));
+        if (cost != null) {
+            for (int[] costRow : cost)
+                checkCosts(costRow, costLimit);
+        }
+        resetAmounts();
+        this.chainRows = new int[m + n + 1];
+        this.chainCols = new int[m + n + 1];
+        if (workspace == null) {
+            this.allocation = new int[m][n];
+            this.basic = new boolean[m][n];
+            this.u = new int[m];
+            this.v = new int[n];
+            this.basis = new BasisTree(m, n);
+        } else {
+            workspace.ensureCapacity(m, n);
+            this.allocation = workspace.allocation;
+            this.basic = workspace.basic;
+            this.u = workspace.u;
+            this.v = workspace.v;
+            this.basis = workspace.basis = new BasisTree(m, n, workspace.basis);
+        }
+    }
+
+    @Override
+    public void solve() {
+        resetStatistics();
+        if (listener != null)
+            listener.solveStarted(m, n);
+
+        long phaseStart = startPhase();
+        startFromScratch();
+        finishPhase(SolverPhase.INITIAL_BASIS, phaseStart);
+        optimize();
+    }
+
+    // Starts from a basis of an earlier solve, e.g. one taken before the problem was changed, instead of from the
+    // initial basis method. Amounts that became negative are repaired with dual pivots; if that does not work out,
+    // the solve starts from scratch.
+    public void solve(Basis warmStart) {
+        if (warmStart.m != m || warmStart.n != n)
+            throw new RuntimeException("Basis does not match the size of the problem");
+
+        resetStatistics();
+        if (listener != null)
+            listener.solveStarted(m, n);
+
+        long phaseStart = startPhase();
+        resetAmounts();
+        installBasis(warmStart);
+        if (repairFlows())
+            initialCost = getBasisCost();
+        else
+            startFromScratch();
+        finishPhase(SolverPhase.INITIAL_BASIS, phaseStart);
+        optimize();
+    }
+
+    // Applies the change to the solver's copy of the problem and re-solves from the current optimal basis; the
+    // TransportationProblem passed in stays as it was.
+    // Supply and demand changes are repaired under the old costs, for which the basis is optimal, and the new costs
+    // are then handled by the usual pivots. Work grows with the size of the change rather than with the problem.
+    public void resolve(ProblemChange change) {
+        if (basis.size() != m + n - 1)
+            throw new RuntimeException("Problem has not been solved yet");
+        for (int[] costChange : change.costs)
+            checkCost(costChange[2], costLimit);
+
+        System.arraycopy(problemSupply, 0, supply, 0, problemSupply.length);
+        System.arraycopy(problemDemand, 0, demand, 0, problemDemand.length);
+        for (int[] supplyChange : change.supplies)
+            supply[supplyChange[0]] = supplyChange[1];
+        for (int[] demandChange : change.demands)
+            demand[demandChange[0]] = demandChange[1];
+        balanceDummy();
+
+        resetStatistics();
+        if (listener != null)
+            listener.solveStarted(m, n);
+
+        long phaseStart = startPhase();
+        System.arraycopy(supply, 0, problemSupply, 0, problemSupply.length);
+        System.arraycopy(demand, 0, problemDemand, 0, problemDemand.length);
+        boolean isRepaired = !change.changesAmounts() || repairFlows();
+        for (int[] costChange : change.costs)
+            setCost(costChange[0], costChange[1], costChange[2]);
+        if (isRepaired)
+            initialCost = getBasisCost();
+        else
+            startFromScratch();
+        finishPhase(SolverPhase.INITIAL_BASIS, phaseStart);
+        optimize();
+    }
+
+    public Basis getBasis() {
+        if (basis.size() != m + n - 1)
+            throw new RuntimeException("Problem has not been solved yet");
+
+        int[] rows = new int[basis.size()], cols = new int[basis.size()];
+        for (int node = 1; node < basis.nodeCount; ++node) {
+            int e = basis.parentEdge[node];
+            rows[node - 1] = basis.edgeRow[e];
+            cols[node - 1] = basis.edgeCol[e];
+        }
+        return new Basis(m, n, rows, cols);
+    }
+
+    // Cost access outside the pricing loops, for subclasses that keep costs somewhere other than cost[][]
+    protected int cost(int i, int j) {
+        if (i == dummyRow)
+            return shortagePenalty[j];
+        if (j == dummyColumn)
+            return overflowPenalty[i];
+        return cost[i][j];
+    }
+
+    // Cost row i as seen by the pricing loops over columns 0..costColumns: the shortage penalties for the dummy row
+    protected int[] costRow(int i) {
+        return i == dummyRow ? shortagePenalty : cost[i];
+    }
+
+    protected void setCost(int i, int j, int value) {
+        if (cost[i] == problem.cost[i])
+            cost[i] = cost[i].clone();
+        cost[i][j] = value;
+    }
+
+    // Row-major copy of the rows seen by pricing, dummy row included, taken before every pivot loop so that cost
+    // and penalty changes made in between are picked up
+    protected void copyFlatCost() {
+        if (flatCost == null)
+            flatCost = new int[m * costColumns];
         for (int i = 0; i < m; ++i)
-            Arrays.fill(allocation[i], NOT_ALLOCATED);
-        this.u = new int[m];
-        this.v = new int[n];
-        this.delta = new int[m][n];
+            System.arraycopy(costRow(i), 0, flatCost, i * costColumns, costColumns);
+    }
+
+    // Copies supplies and demands of the problem and lets the dummy node absorb the difference
+    protected final void resetAmounts() {
+        System.arraycopy(problemSupply, 0, supply, 0, problemSupply.length);
+        System.arraycopy(problemDemand, 0, demand, 0, problemDemand.length);
+        balanceDummy();
+    }
 
-        if (!isBalanced())
+    protected final void balanceDummy() {
+        long imbalance = sum(supply, problem.supply.length) - sum(demand, problem.demand.length);
+        if (imbalance > 0 && dummyColumn != NO_DUMMY)
+            demand[dummyColumn] = toAmount(imbalance);
+        else if (imbalance < 0 && dummyRow != NO_DUMMY)
+            supply[dummyRow] = toAmount(-imbalance);
+        else if (imbalance == 0 && dummyColumn != NO_DUMMY)
+            demand[dummyColumn] = 0;
+        else if (imbalance == 0 && dummyRow != NO_DUMMY)
+            supply[dummyRow] = 0;
+        else if (imbalance != 0)
             throw new RuntimeException("Supplies do not match demands");
     }
 
-    public void solve() {
-        northwestCornerMethod();
+    // Sum of amounts[0..length), which leaves out a dummy node at the end
+    private static long sum(int[] amounts, int length) {
+        long total = 0;
+        for (int k = 0; k < length; ++k)
+            total += amounts[k];
+        return total;
+    }
+
+    static void checkCosts(int[] costs, int costLimit) {
+        for (int c : costs)
+            checkCost(c, costLimit);
+    }
+
+    static void checkCost(int c, int costLimit) {
+        if (c > costLimit || c < -costLimit)
+            throw new RuntimeException("Costs of the problem overflow the int potentials of this solver; "
+                    + "use WideTransportationProblemSolver");
+    }
+
+    private static int toAmount(long imbalance) {
+        if (imbalance > Integer.MAX_VALUE)
+            throw new RuntimeException("Difference between supplies and demands does not fit into an int");
+        return (int) imbalance;
+    }
+
+    protected void startFromScratch() {
+        resetAmounts();
+        clearAllocation();
+        buildInitialBasis();
+        buildBasisTree();
+    }
+
+    // Pivots from the current basis, whose allocation must be feasible, to an optimal one
+    protected void optimize() {
+        if (matrixLayout == MatrixLayout.FLAT)
+            copyFlatCost();
+
+        long objective = initialCost;
+        if (listener != null)
+            listener.initialSolutionFound(objective);
+
+        long phaseStart = startPhase();
+        computePotentials();
+        finishPhase(SolverPhase.POTENTIALS, phaseStart);
+        isCurrentSolutionOptimal = false;
         while (true) {
-            isCurrentSolutionOptimal = true;
-            computePotentials();
+            if (isStopRequested()) {
+                if (checkpointPath != null)
+                    writeCheckpoint();
+                break;
+            }
+
+            phaseStart = startPhase();
             isCurrentSolutionOptimal = conductDeltaOperations();
+            finishPhase(SolverPhase.PRICING, phaseStart);
             if (isCurrentSolutionOptimal)
                 break;
+
+            phaseStart = startPhase();
             buildChain();
+            finishPhase(SolverPhase.CYCLE_SEARCH, phaseStart);
+
+            int enteringDelta = reducedCost(minI, minJ);
+            phaseStart = startPhase();
             adjustAllocation();
+            finishPhase(SolverPhase.ALLOCATION_UPDATE, phaseStart);
+            if (stepSize == 0) {
+                ++degeneratePivotCount;
+                ++stalledPivots;
+            } else
+                stalledPivots = 0;
+
+            phaseStart = startPhase();
+            updatePotentials();
+            finishPhase(SolverPhase.POTENTIALS, phaseStart);
+            if (checkpointPath != null && System.nanoTime() - lastCheckpointNanos >= checkpointIntervalNanos)
+                writeCheckpoint();
+
+            if (listener != null) {
+                objective += (long) enteringDelta * stepSize;
+                listener.pivotFinished(pivotCount, chainLength, stepSize, objective);
+            }
         }
+
+        if (listener != null)
+            listener.solveFinished(pivotCount, getCost());
     }
 
-    protected void northwestCornerMethod() {
-        int i = 0, j = 0;
-        while (i < m && j < n) {
-            int currentAllocation = Math.min(supply[i], demand[j]);
-            allocation[i][j] = (currentAllocation == NO_SUPPLY) ? NOT_ALLOCATED : currentAllocation;
-
-            if (supply[i] == demand[j]) {
-                supply[i] = NO_SUPPLY;
-                demand[j] = 0;
-                ++i;
-            } else {
-                supply[i] -= currentAllocation;
-                demand[j] -= currentAllocation;
-                if (supply[i] == 0) supply[i] = NO_SUPPLY;
-                if (demand[j] == 0) demand[j] = NO_DEMAND;
-                if (supply[i] == NO_SUPPLY) ++i;
-                else ++j;
+    protected boolean isStopRequested() {
+        if (isCancelled) {
+            isCancelled = false;
+            return true;
+        }
+        return timeLimitNanos > 0 && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    protected void writeCheckpoint() {
+        ProblemFiles.writeBasis(getBasis(), checkpointPath);
+        lastCheckpointNanos = System.nanoTime();
+    }
+
+    protected long startPhase() {
+        return listener == null ? 0 : System.nanoTime();
+    }
+
+    protected void finishPhase(SolverPhase phase, long startTime) {
+        if (listener != null)
+            listener.phaseFinished(phase, System.nanoTime() - startTime);
+    }
+
+    protected void clearAllocation() {
+        for (int i = 0; i < m; ++i) {
+            Arrays.fill(allocation[i], 0, n, 0);
+            Arrays.fill(basic[i], 0, n, false);
+        }
+    }
+
+    protected void installBasis(Basis warmStart) {
+        clearAllocation();
+        basis.clear();
+        for (int k = 0; k < warmStart.size(); ++k) {
+            int i = warmStart.rows[k], j = warmStart.cols[k];
+            if (basic[i][j])
+                throw new RuntimeException("Basis contains cell (" + i + ", " + j + ") twice");
+            basic[i][j] = true;
+            basis.addEdge(i, j);
+        }
+        if (basis.size() != m + n - 1 || basis.traverse() != m + n)
+            throw new RuntimeException("Basis does not span all rows and columns");
+    }
+
+    // Makes the allocation of the current basis match the current supplies and demands. Cells that would get
+    // negative amounts are pivoted out with dual simplex pivots, which keep the potentials optimal for a basis that
+    // was optimal before. Returns false if that takes more than m + n pivots.
+    protected boolean repairFlows() {
+        if (edgeFlow == null) {
+            edgeFlow = new long[m + n];
+            subtree = new int[m + n];
+            inSubtree = new boolean[m + n];
+        }
+
+        if (computeFlows()) {
+            computePotentials();
+            while (true) {
+                int leavingEdge = BasisTree.NONE;
+                for (int node = 1; node < basis.nodeCount; ++node) {
+                    int e = basis.parentEdge[node];
+                    if (edgeFlow[e] < 0 && (leavingEdge == BasisTree.NONE || edgeFlow[e] < edgeFlow[leavingEdge]))
+                        leavingEdge = e;
+                }
+                if (leavingEdge == BasisTree.NONE)
+                    break;
+                if (repairPivotCount == m + n || !dualPivot(leavingEdge))
+                    return false;
+                ++repairPivotCount;
             }
         }
+
+        for (int node = 1; node < basis.nodeCount; ++node) {
+            int e = basis.parentEdge[node];
+            allocation[basis.edgeRow[e]][basis.edgeCol[e]] = (int) edgeFlow[e];
+        }
+        return true;
     }
 
-    protected void computePotentials() {
-        Arrays.fill(u, UNDEFINED);
-        Arrays.fill(v, UNDEFINED);
-        u[0] = 0;
-
-        boolean updated;
-        do {
-            updated = false;
-            for (int i = 0; i < m; ++i) {
+    // Flows of the basic cells follow from supplies and demands alone: working up from the leaves, the cell above
+    // a node carries whatever its subtree has left over. Returns true if some cell gets a negative amount.
+    protected boolean computeFlows() {
+        int count = basis.traverse();
+        long[] surplus = new long[m + n];
+        for (int i = 0; i < m; ++i)
+            surplus[i] = supply[i];
+        for (int j = 0; j < n; ++j)
+            surplus[m + j] = -demand[j];
+
+        boolean hasNegative = false;
+        for (int k = count - 1; k > 0; --k) {
+            int node = basis.order[k], e = basis.parentEdge[node];
+            edgeFlow[e] = basis.isRow(node) ? surplus[node] : -surplus[node];
+            surplus[basis.parent[node]] += surplus[node];
+            hasNegative |= edgeFlow[e] < 0;
+        }
+        return hasNegative;
+    }
+
+    // Dual simplex pivot that drives the negative amount of the leaving cell to zero. The entering cell has to
+    // reconnect the cut-off subtree so that shipping over it raises the leaving amount, which holds for cells whose
+    // end inside the subtree is of the other kind than the subtree root. The one with the smallest reduced cost
+    // keeps the potentials optimal.
+    protected boolean dualPivot(int leavingEdge) {
+        int leavingRow = basis.edgeRow[leavingEdge], leavingCol = m + basis.edgeCol[leavingEdge];
+        int cutRoot = basis.parent[leavingCol] == leavingRow ? leavingCol : leavingRow;
+        int count = basis.collectSubtree(cutRoot, subtree);
+        for (int k = 0; k < count; ++k)
+            inSubtree[subtree[k]] = true;
+
+        int enteringI = -1, enteringJ = -1, minDelta = Integer.MAX_VALUE;
+        for (int k = 0; k < count; ++k) {
+            int node = subtree[k];
+            if (basis.isRow(node) == basis.isRow(cutRoot))
+                continue;
+
+            if (basis.isRow(node)) {
                 for (int j = 0; j < n; ++j) {
-                    if (allocation[i][j] != NOT_ALLOCATED) {
-                        if (u[i] != UNDEFINED && v[j] == UNDEFINED) {
-                            v[j] = cost[i][j] - u[i];
-                            updated = true;
-                        } else if (v[j] != UNDEFINED && u[i] == UNDEFINED) {
-                            u[i] = cost[i][j] - v[j];
-                            updated = true;
-                        }
+                    if (!inSubtree[m + j] && !basic[node][j] && reducedCost(node, j) < minDelta) {
+                        minDelta = reducedCost(node, j);
+                        enteringI = node;
+                        enteringJ = j;
+                    }
+                }
+            } else {
+                int j = node - m;
+                for (int i = 0; i < m; ++i) {
+                    if (!inSubtree[i] && !basic[i][j] && reducedCost(i, j) < minDelta) {
+                        minDelta = reducedCost(i, j);
+                        enteringI = i;
+                        enteringJ = j;
                     }
                 }
             }
-        } while (updated);
+        }
+
+        for (int k = 0; k < count; ++k)
+            inSubtree[subtree[k]] = false;
+        if (enteringI == -1)
+            return false;
+
+        long amount = -edgeFlow[leavingEdge];
+        int length = basis.findCycle(enteringI, enteringJ);
+        for (int k = 0; k < length; ++k)
+            edgeFlow[basis.cycle[k]] += k % 2 == 0 ? -amount : amount;
+
+        basic[basis.edgeRow[leavingEdge]][basis.edgeCol[leavingEdge]] = false;
+        allocation[basis.edgeRow[leavingEdge]][basis.edgeCol[leavingEdge]] = 0;
+        basic[enteringI][enteringJ] = true;
+        int relabelled = basis.pivot(enteringI, enteringJ, leavingEdge);
+        edgeFlow[basis.parentEdge[basis.order[0]]] = amount;
+        labelPotentials(relabelled);
+        return true;
     }
 
-    protected boolean conductDeltaOperations() {
-        int minDelta = Integer.MAX_VALUE;
+    // Initial basis methods only know the cost matrix, not the dummy node, so unbalanced problems always start from
+    // the northwest corner
+    protected void buildInitialBasis() {
+        if (initialBasisMethod == null || !isBalanced())
+            northwestCornerMethod();
+        else
+            allocateInitialBasis();
+        initialCost = getCost();
+    }
+
+    protected void allocateInitialBasis() {
+        DisjointSets components = new DisjointSets(m + n);
+        initialBasisMethod.allocate(cost, supply, demand, (i, j, amount) -> {
+            if (!components.union(i, m + j))
+                throw new RuntimeException("Initial allocation contains a cycle");
+            allocation[i][j] = amount;
+            basic[i][j] = true;
+        });
+
+        // connect what is left with zero cells so that the basis spans every row and column
+        for (int i = 0; i < m; ++i) {
+            if (components.union(i, m))
+                basic[i][0] = true;
+        }
+        for (int j = 1; j < n; ++j) {
+            if (components.union(0, m + j))
+                basic[0][j] = true;
+        }
+    }
+
+    // Walks the staircase from the northwest corner and makes every cell on it basic, zero amounts included, so the
+    // basis always has m + n - 1 cells. A row is left as soon as its supply is used up, except on the last row,
+    // which has to reach the last column even if the remaining demands are all zero.
+    protected void northwestCornerMethod() {
+        int i = 0, j = 0;
+        int remainingSupply = supply[0], remainingDemand = demand[0];
+        while (true) {
+            int currentAllocation = Math.min(remainingSupply, remainingDemand);
+            allocation[i][j] = currentAllocation;
+            basic[i][j] = true;
+            remainingSupply -= currentAllocation;
+            remainingDemand -= currentAllocation;
+
+            if (i == m - 1 && j == n - 1)
+                break;
+            if (j == n - 1 || (i < m - 1 && remainingSupply == 0))
+                remainingSupply = supply[++i];
+            else
+                remainingDemand = demand[++j];
+        }
+    }
+
+    protected void buildBasisTree() {
+        basis.clear();
         for (int i = 0; i < m; ++i) {
             for (int j = 0; j < n; ++j) {
-                if (allocation[i][j] == NOT_ALLOCATED) {
-                    delta[i][j] = cost[i][j] - (u[i] + v[j]);
+                if (basic[i][j])
+                    basis.addEdge(i, j);
+            }
+        }
+    }
+
+    protected void computePotentials() {
+        int labelled = basis.traverse();
+        if (labelled != m + n)
+            throw new RuntimeException("Basis does not span all rows and columns");
+        labelPotentials(labelled);
+    }
+
+    // Re-labels only the subtree cut off by the leaving cell of the last pivot
+    protected void updatePotentials() {
+        labelPotentials(basis.pivot(minI, minJ, findLeavingEdge()));
+    }
+
+    protected int findLeavingEdge() {
+        int e = basis.findEdge(leavingI, leavingJ);
+        if (e == BasisTree.NONE)
+            throw new RuntimeException("No cell left the basis");
+        return e;
+    }
+
+    protected void labelPotentials(int count) {
+        for (int k = 0; k < count; ++k)
+            labelNode(basis.order[k]);
+    }
+
+    // Sets the potential of a node from its parent, whose potential must already be known
+    protected void labelNode(int node) {
+        int e = basis.parentEdge[node];
+        if (e == BasisTree.NONE) {
+            u[node] = 0;
+            return;
+        }
+
+        int i = basis.edgeRow[e], j = basis.edgeCol[e];
+        if (basis.isRow(node))
+            u[i] = cost(i, j) - v[j];
+        else
+            v[j] = cost(i, j) - u[i];
+    }
+
+    protected boolean conductDeltaOperations() {
+        long startTime = System.nanoTime();
+        boolean isImproving = stalledPivots >= stallLimit ? selectByBlandsRule() : pricingStrategy.selectEnteringCell(this);
+        pricingTimeNanos += System.nanoTime() - startTime;
+
+        if (isImproving)
+            ++pivotCount;
+        return !isImproving;
+    }
+
+    // After a run of degenerate pivots the objective has not moved for a while, and the pricing strategy may be
+    // going round a cycle of bases. Bland's rule takes the improving cell with the lowest index instead; together
+    // with the lowest-index leaving cell it cannot cycle. Pricing goes back to the strategy after the first pivot
+    // that ships something.
+    protected boolean selectByBlandsRule() {
+        if (findNegativeInRows(0, m) >= 0)
+            return false;
+        ++blandPivotCount;
+        return true;
+    }
 
-                    if (delta[i][j] < 0)
-                        isCurrentSolutionOptimal = false;
+    @Override
+    public int priceRows(int fromRow, int toRow) {
+        if (matrixLayout == MatrixLayout.FLAT)
+            return priceFlatRows(fromRow, toRow);
 
-                    if (delta[i][j] < minDelta) {
-                        minDelta = delta[i][j];
+        int minDelta = Integer.MAX_VALUE;
+        for (int i = fromRow; i < toRow; ++i) {
+            int[] costRow = costRow(i);
+            for (int j = 0; j < costColumns; ++j) {
+                if (!basic[i][j]) {
+                    int delta = costRow[j] - (u[i] + v[j]);
+
+                    if (delta < minDelta) {
+                        minDelta = delta;
                         minI = i;
                         minJ = j;
                     }
-                } else
-                    delta[i][j] = UNDEFINED;
+                }
+            }
+
+            if (dummyColumn != NO_DUMMY && !basic[i][dummyColumn]) {
+                int delta = overflowPenalty[i] - (u[i] + v[dummyColumn]);
+                if (delta < minDelta) {
+                    minDelta = delta;
+                    minI = i;
+                    minJ = dummyColumn;
+                }
+            }
+        }
+        return minDelta;
+    }
+
+    // Basic cells have a reduced cost of exactly 0, so they never beat a negative one and the scan needs no basis
+    // flags. It returns 0 rather than the smallest non-negative reduced cost when no cell improves.
+    protected int priceFlatRows(int fromRow, int toRow) {
+        int minDelta = 0;
+        for (int i = fromRow; i < toRow; ++i) {
+            int rowDelta = flatRowMinimum(i);
+            if (rowDelta < minDelta) {
+                minDelta = rowDelta;
+                minI = i;
+                minJ = flatColumnOf(i, rowDelta);
+            }
+
+            if (dummyColumn != NO_DUMMY && !basic[i][dummyColumn]) {
+                int delta = overflowPenalty[i] - (u[i] + v[dummyColumn]);
+                if (delta < minDelta) {
+                    minDelta = delta;
+                    minI = i;
+                    minJ = dummyColumn;
+                }
             }
         }
+        return minDelta;
+    }
+
+    // Smallest reduced cost of row i over the cost columns, basic cells included, and never above 0
+    protected int flatRowMinimum(int i) {
+        return rowPricing.rowMinimum(flatCost, i * costColumns, u[i], v, costColumns);
+    }
+
+    // First cost column of row i with the given reduced cost
+    protected int flatColumnOf(int i, int delta) {
+        int j = rowPricing.columnOf(flatCost, i * costColumns, u[i], v, costColumns, delta);
+        if (j == -1)
+            throw new RuntimeException("Row " + i + " has no cell with reduced cost " + delta);
+        return j;
+    }
+
+    @Override
+    public int findNegativeInRows(int fromRow, int toRow) {
+        if (matrixLayout == MatrixLayout.FLAT)
+            return findNegativeInFlatRows(fromRow, toRow);
+
+        for (int i = fromRow; i < toRow; ++i) {
+            int[] costRow = costRow(i);
+            for (int j = 0; j < costColumns; ++j) {
+                if (!basic[i][j] && costRow[j] - (u[i] + v[j]) < 0) {
+                    minI = i;
+                    minJ = j;
+                    return costRow[j] - (u[i] + v[j]);
+                }
+            }
+
+            if (dummyColumn != NO_DUMMY && !basic[i][dummyColumn] && reducedCost(i, dummyColumn) < 0) {
+                minI = i;
+                minJ = dummyColumn;
+                return reducedCost(i, dummyColumn);
+            }
+        }
+        return 0;
+    }
+
+    protected int findNegativeInFlatRows(int fromRow, int toRow) {
+        for (int i = fromRow; i < toRow; ++i) {
+            int offset = i * costColumns, ui = u[i];
+            for (int j = 0; j < costColumns; ++j) {
+                int delta = flatCost[offset + j] - ui - v[j];
+                if (delta < 0) {
+                    minI = i;
+                    minJ = j;
+                    return delta;
+                }
+            }
+
+            if (dummyColumn != NO_DUMMY && !basic[i][dummyColumn] && reducedCost(i, dummyColumn) < 0) {
+                minI = i;
+                minJ = dummyColumn;
+                return reducedCost(i, dummyColumn);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int rowCount() {
+        return m;
+    }
+
+    @Override
+    public int columnCount() {
+        return n;
+    }
+
+    @Override
+    public boolean isBasic(int i, int j) {
+        return basic[i][j];
+    }
+
+    @Override
+    public int reducedCost(int i, int j) {
+        return cost(i, j) - (u[i] + v[j]);
+    }
+
+    @Override
+    public int enteringRow() {
+        return minI;
+    }
+
+    @Override
+    public int enteringColumn() {
+        return minJ;
+    }
+
+    @Override
+    public void setEnteringCell(int i, int j) {
+        minI = i;
+        minJ = j;
+    }
+
+    // Cost per unit of demand at column j that is left unmet when demands exceed supplies
+    public void setShortagePenalties(int[] penalties) {
+        checkCosts(penalties, costLimit);
+        System.arraycopy(penalties, 0, shortagePenalty, 0, problem.demand.length);
+    }
+
+    // Cost per unit of supply at row i that is not shipped when supplies exceed demands
+    public void setOverflowPenalties(int[] penalties) {
+        checkCosts(penalties, costLimit);
+        System.arraycopy(penalties, 0, overflowPenalty, 0, problem.supply.length);
+    }
+
+    public boolean isBalanced() {
+        return dummyRow == NO_DUMMY && dummyColumn == NO_DUMMY;
+    }
+
+    public int getUnmetDemand(int j) {
+        return dummyRow == NO_DUMMY ? 0 : allocation[dummyRow][j];
+    }
+
+    public int getUnusedSupply(int i) {
+        return dummyColumn == NO_DUMMY ? 0 : allocation[i][dummyColumn];
+    }
+
+    // null selects the northwest corner method, which unbalanced problems use in any case
+    public void setInitialBasisMethod(InitialBasisMethod initialBasisMethod) {
+        this.initialBasisMethod = initialBasisMethod;
+    }
+
+    public long getInitialCost() {
+        return initialCost;
+    }
+
+    public void setPricingStrategy(PricingStrategy pricingStrategy) {
+        this.pricingStrategy = pricingStrategy;
+    }
+
+    public int getPivotCount() {
+        return pivotCount;
+    }
+
+    public int getDegeneratePivotCount() {
+        return degeneratePivotCount;
+    }
+
+    // Pivots whose entering cell came from Bland's rule rather than the pricing strategy
+    public int getBlandPivotCount() {
+        return blandPivotCount;
+    }
+
+    // Number of degenerate pivots in a row after which the entering cell is chosen by Bland's rule
+    public void setStallLimit(int stallLimit) {
+        if (stallLimit < 1)
+            throw new RuntimeException("Stall limit must be positive");
+        this.stallLimit = stallLimit;
+    }
+
+    // null switches instrumentation off
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
+    // Dual pivots the last warm start needed before the usual pivots could start
+    public int getRepairPivotCount() {
+        return repairPivotCount;
+    }
+
+    public long getPricingTimeNanos() {
+        return pricingTimeNanos;
+    }
+
+    protected void resetStatistics() {
+        deadlineNanos = System.nanoTime() + timeLimitNanos;
+        lastCheckpointNanos = System.nanoTime();
+        pivotCount = 0;
+        degeneratePivotCount = 0;
+        stalledPivots = 0;
+        blandPivotCount = 0;
+        repairPivotCount = 0;
+        pricingTimeNanos = 0;
+        pricingStrategy.reset();
+    }
+
+    // Pivoting stops once the limit has passed since the solve started; 0 means no limit. The solve then returns
+    // with the feasible allocation of the last basis, and isOptimal() tells whether it got to the end.
+    public void setTimeLimit(long millis) {
+        if (millis < 0)
+            throw new RuntimeException("Time limit must not be negative");
+        this.timeLimitNanos = millis * 1_000_000;
+    }
+
+    // May be called from any thread. Stops the running solve after its current pivot, or the next solve before its
+    // first pivot if none is running.
+    public void cancel() {
+        isCancelled = true;
+    }
+
+    public boolean isOptimal() {
         return isCurrentSolutionOptimal;
     }
 
+    // Writes the basis to path every intervalMillis while pivoting, and once more if the solve stops early. solve()
+    // with ProblemFiles.readBasis(path) then carries on from there; the potentials follow from the basis, so the
+    // file holds only the basic cells. A null path turns checkpoints off.
+    public void setCheckpoint(Path path, long intervalMillis) {
+        if (intervalMillis < 0)
+            throw new RuntimeException("Checkpoint interval must not be negative");
+        this.checkpointPath = path;
+        this.checkpointIntervalNanos = intervalMillis * 1_000_000;
+    }
+
+    public void setCycleSearch(CycleSearch cycleSearch) {
+        this.cycleSearch = cycleSearch;
+    }
+
+    public void setMatrixLayout(MatrixLayout matrixLayout) {
+        this.matrixLayout = matrixLayout;
+    }
+
+    // Prices the rows of the flat layout with the Vector API, if the JVM was started with
+    // --add-modules jdk.incubator.vector; without the module, pricing stays scalar. Has no effect on the nested layout.
+    public void setVectorPricing(boolean isEnabled) {
+        this.rowPricing = isEnabled ? FlatRowPricing.vector() : FlatRowPricing.scalar();
+    }
+
+    public boolean isVectorPricing() {
+        return !(rowPricing instanceof ScalarRowPricing);
+    }
+
     protected void buildChain() {
-        boolean isSearchInColumn = true;
-        boolean[][] visited = new boolean[m][n];
-        chain = new Chain(); // create a new chain on each iteration
+        if (cycleSearch == CycleSearch.SPANNING_TREE)
+            buildChainFromBasisTree();
+        else
+            buildChainByDepthFirstSearch();
+    }
 
-        Stack<ChainElement> stack = new Stack<>();
-        final ChainElement firstElement = new ChainElement(minI, minJ, cost[minI][minJ], allocation[minI][minJ]);
-        stack.push(firstElement);
-        chain.add(firstElement);
+    protected void buildChainFromBasisTree() {
+        chainRows[0] = minI;
+        chainCols[0] = minJ;
 
-        while (!chain.isClosed()) {
-            isSearchInColumn = !isSearchInColumn;
+        int length = basis.findCycle(minI, minJ);
+        for (int k = 0; k < length; ++k) {
+            chainRows[k + 1] = basis.edgeRow[basis.cycle[k]];
+            chainCols[k + 1] = basis.edgeCol[basis.cycle[k]];
+        }
+        chainLength = length + 1;
+    }
 
-            ChainElement currentElement = stack.peek();
-            visited[currentElement.i][currentElement.j] = true;
+    // The chain doubles as the search stack. Moves alternate between rows and columns, so the direction of the next
+    // move follows from the depth, and the search is over once the top cell shares a row or column with the entering
+    // cell. Basic cells form a tree, so that can only happen at an odd position, with a cell that gives up the step.
+    protected void buildChainByDepthFirstSearch() {
+        if (visitedEpoch == null)
+            visitedEpoch = new int[m][n];
+        if (++epoch == Integer.MAX_VALUE) {
+            for (int[] row : visitedEpoch)
+                Arrays.fill(row, 0);
+            epoch = 1;
+        }
 
-            int nearestIndex = findNearestIndex(currentElement, isSearchInColumn, visited);
+        chainRows[0] = minI;
+        chainCols[0] = minJ;
+        chainLength = 1;
+        while (!isChainClosed()) {
+            boolean isSearchInColumn = chainLength % 2 == 0;
+            int i = chainRows[chainLength - 1], j = chainCols[chainLength - 1];
+            visitedEpoch[i][j] = epoch;
 
+            int nearestIndex = findNearestIndex(i, j, isSearchInColumn);
             if (nearestIndex != -1) {
-                ChainElement newElement = isSearchInColumn
-                        ? new ChainElement(nearestIndex, currentElement.j, cost[nearestIndex][currentElement.j], allocation[nearestIndex][currentElement.j])
-                        : new ChainElement(currentElement.i, nearestIndex, cost[currentElement.i][nearestIndex], allocation[currentElement.i][nearestIndex]);
-
-                stack.push(newElement);
-                chain.add(newElement);
+                chainRows[chainLength] = isSearchInColumn ? nearestIndex : i;
+                chainCols[chainLength] = isSearchInColumn ? j : nearestIndex;
+                ++chainLength;
             } else
-                chain.chain.remove(stack.pop());
+                --chainLength;
         }
     }
 
-    protected int findNearestIndex(ChainElement element, boolean searchInColumn, boolean[][] visited) {
+    protected boolean isChainClosed() {
+        int last = chainLength - 1;
+        return chainLength >= 4 && (chainRows[last] == chainRows[0] || chainCols[last] == chainCols[0]);
+    }
+
+    protected boolean isVisited(int i, int j) {
+        return visitedEpoch[i][j] == epoch;
+    }
+
+    // Nearest basic cell to (i, j) in its column or row that is not on the search path or a dead end yet
+    protected int findNearestIndex(int i, int j, boolean searchInColumn) {
+        if (matrixLayout == MatrixLayout.FLAT)
+            return findNearestBasicIndex(i, j, searchInColumn);
+
         int minDistance = Integer.MAX_VALUE;
         int nearestIndex = -1;
-        int fixedIndex = searchInColumn ? element.j : element.i;
 
         if (searchInColumn) {
-            for (int i = 0; i < m; ++i) {
-                if (allocation[i][fixedIndex] != NOT_ALLOCATED && i != element.i && !visited[i][fixedIndex]) {
-                    int distance = Math.abs(i - element.i);
+            for (int row = 0; row < m; ++row) {
+                if (basic[row][j] && row != i && !isVisited(row, j)) {
+                    int distance = Math.abs(row - i);
                     if (distance < minDistance) {
                         minDistance = distance;
-                        nearestIndex = i;
+                        nearestIndex = row;
                     }
                 }
             }
         } else {
-            for (int j = 0; j < n; ++j) {
-                if (allocation[fixedIndex][j] != NOT_ALLOCATED && j != element.j && !visited[fixedIndex][j]) {
-                    int distance = Math.abs(j - element.j);
+            for (int col = 0; col < n; ++col) {
+                if (basic[i][col] && col != j && !isVisited(i, col)) {
+                    int distance = Math.abs(col - j);
                     if (distance < minDistance) {
                         minDistance = distance;
-                        nearestIndex = j;
+                        nearestIndex = col;
                     }
                 }
             }
@@ -171,71 +967,131 @@ public class TransportationProblemSolver {
         return nearestIndex;
     }
 
-    protected void adjustAllocation() {
-        int minValue = chain.getMinValue();
-
-        for (ChainElement chainElement : chain.chain) {
-            if (chainElement.sign == Sign.NEGATIVE) {
-                if (allocation[chainElement.i][chainElement.j] - minValue == 0)
-                    allocation[chainElement.i][chainElement.j] = NOT_ALLOCATED;
-                else
-                    allocation[chainElement.i][chainElement.j] -= minValue;
-            } else {
-                if (allocation[chainElement.i][chainElement.j] == NOT_ALLOCATED)
-                    allocation[chainElement.i][chainElement.j] += minValue + 1;
-                else
-                    allocation[chainElement.i][chainElement.j] += minValue;
+    // Same choice as the scan over the row or column, made among its basic cells in the basis tree, which are
+    // exactly the allocated ones; ties go to the lower index as in the scan
+    protected int findNearestBasicIndex(int i, int j, boolean searchInColumn) {
+        if (incidentEdges == null)
+            incidentEdges = new int[Math.max(m, n)];
+
+        int count = basis.incidentEdges(searchInColumn ? m + j : i, incidentEdges);
+        int from = searchInColumn ? i : j;
+        int minDistance = Integer.MAX_VALUE;
+        int nearestIndex = -1;
+        for (int k = 0; k < count; ++k) {
+            int e = incidentEdges[k], row = basis.edgeRow[e], col = basis.edgeCol[e];
+            int index = searchInColumn ? row : col;
+            if (isVisited(row, col) || index == from)
+                continue;
+
+            int distance = Math.abs(index - from);
+            if (distance < minDistance || distance == minDistance && index < nearestIndex) {
+                minDistance = distance;
+                nearestIndex = index;
             }
         }
+        return nearestIndex;
+    }
 
-        int degenerateCount = degenerateCount();
-        if (degenerateCount > 0) {
-            ArrayList<ChainElement> degenerateElements = new ArrayList<>();
-            for (ChainElement chainElement : chain.chain) {
-                if (allocation[chainElement.i][chainElement.j] == NOT_ALLOCATED)
-                    degenerateElements.add(chainElement);
+    protected void adjustAllocation() {
+        stepSize = selectLeavingCell();
+        adjustChain(0, chainLength);
+        swapBasicCells();
+    }
+
+    protected void adjustChain(int from, int to) {
+        for (int k = from; k < to; ++k)
+            allocation[chainRows[k]][chainCols[k]] += k % 2 == 0 ? stepSize : -stepSize;
+    }
+
+    // Picks the leaving cell among the odd positions of the chain and returns its amount, the step size. When
+    // several share the smallest amount, which is what makes a pivot degenerate, the one with the lowest index
+    // i * n + j leaves, so the choice does not depend on the order in which the chain was found.
+    protected int selectLeavingCell() {
+        int minValue = Integer.MAX_VALUE;
+        leavingI = -1;
+        for (int k = 1; k < chainLength; k += 2) {
+            int i = chainRows[k], j = chainCols[k], amount = allocation[i][j];
+            if (amount < minValue || amount == minValue && (long) i * n + j < (long) leavingI * n + leavingJ) {
+                minValue = amount;
+                leavingI = i;
+                leavingJ = j;
             }
-            degenerateElements.sort((chainElement1, chainElement2) -> cost[chainElement2.i][chainElement2.j] - cost[chainElement1.i][chainElement1.j]);
-            for (int i = 0; i < degenerateCount; ++i)
-                allocation[degenerateElements.get(i).i][degenerateElements.get(i).j] = 0;
         }
+        return minValue;
+    }
+
+    protected void swapBasicCells() {
+        basic[minI][minJ] = true;
+        basic[leavingI][leavingJ] = false;
     }
 
+    // For an unbalanced problem the dummy row or column comes last
+    @Override
     public int[][] getAllocation() {
         return allocation;
     }
 
-    public int getCost() {
-        int totalCost = 0;
-        for (int i = 0; i < m; ++i) {
-            for (int j = 0; j < n; ++j) {
-                if (allocation[i][j] > 0)
-                    totalCost += allocation[i][j] * cost[i][j];
-            }
-        }
-        return totalCost;
+    protected boolean isDummyCell(int i, int j) {
+        return i == dummyRow || j == dummyColumn;
     }
 
-    private boolean isBalanced() {
-        int supplySum = 0, demandSum = 0;
-        for (int i = 0; i < m; ++i)
-            supplySum += supply[i];
+    // Non-zero shipments of the solution, without the dummy row or column, read off the basis tree without scanning the whole allocation
+    public SparseAllocation getSparseAllocation() {
+        int count = 0;
+        for (int node = 1; node < basis.nodeCount; ++node) {
+            int e = basis.parentEdge[node];
+            if (allocation[basis.edgeRow[e]][basis.edgeCol[e]] > 0 && !isDummyCell(basis.edgeRow[e], basis.edgeCol[e]))
+                ++count;
+        }
 
-        for (int i = 0; i < n; ++i)
-            demandSum += demand[i];
+        int[] rows = new int[count], cols = new int[count], amounts = new int[count];
+        count = 0;
+        for (int node = 1; node < basis.nodeCount; ++node) {
+            int e = basis.parentEdge[node], i = basis.edgeRow[e], j = basis.edgeCol[e];
+            if (allocation[i][j] > 0 && !isDummyCell(i, j)) {
+                rows[count] = i;
+                cols[count] = j;
+                amounts[count++] = allocation[i][j];
+            }
+        }
+        return new SparseAllocation(rows, cols, amounts);
+    }
 
-        return supplySum == demandSum;
+    // Potentials of the final basis for the rows and columns of the problem, without the dummy node. With them the
+    // reduced cost of cell (i, j) is cost[i][j] - u[i] - v[j], which SolutionVerifier checks as a certificate of
+    // optimality for a balanced problem.
+    public long[] getRowPotentials() {
+        long[] rowPotentials = new long[problem.supply.length];
+        for (int i = 0; i < rowPotentials.length; ++i)
+            rowPotentials[i] = u[i];
+        return rowPotentials;
     }
 
-    protected int degenerateCount() {
-        int basisCount = 0;
+    public long[] getColumnPotentials() {
+        long[] columnPotentials = new long[problem.demand.length];
+        for (int j = 0; j < columnPotentials.length; ++j)
+            columnPotentials[j] = v[j];
+        return columnPotentials;
+    }
 
+    @Override
+    public long getCost() {
+        long totalCost = 0;
         for (int i = 0; i < m; ++i) {
             for (int j = 0; j < n; ++j) {
-                if (allocation[i][j] != NOT_ALLOCATED)
-                    ++basisCount;
+                if (allocation[i][j] > 0)
+                    totalCost += (long) allocation[i][j] * cost(i, j);
             }
         }
-        return m + n - 1 - basisCount;
+        return totalCost;
+    }
+
+    protected long getBasisCost() {
+        long totalCost = 0;
+        for (int node = 1; node < basis.nodeCount; ++node) {
+            int e = basis.parentEdge[node], i = basis.edgeRow[e], j = basis.edgeCol[e];
+            totalCost += (long) allocation[i][j] * cost(i, j);
+        }
+        return totalCost;
     }
 }
@@ -0,0 +1,29 @@
+package org.example;
+
+// Contract shared by the solver engines: solve once, then read the optimal allocation and its cost
+public interface TransportationSolver {
+    // the network simplex numbers its cell arcs with an int and keeps a state byte per arc
+    long MAX_NETWORK_ARCS = Integer.MAX_VALUE - 8;
+
+    void solve();
+
+    int[][] getAllocation();
+
+    long getCost();
+
+    // Picks an engine for the problem. The network simplex is faster than MODI at every size measured, down to
+    // 5x5, so it is used whenever it can take the problem: balanced, with every cell fitting its arc numbering.
+    // Unbalanced problems need the dummy row or column of the MODI solver.
+    static TransportationSolver forProblem(TransportationProblem problem) {
+        int m = problem.supply.length, n = problem.demand.length;
+        long supplySum = 0, demandSum = 0;
+        for (int s : problem.supply)
+            supplySum += s;
+        for (int d : problem.demand)
+            demandSum += d;
+
+        if (supplySum == demandSum && (long) m * n + m + n <= MAX_NETWORK_ARCS)
+            return new NetworkSimplexSolver(problem);
+        return new TransportationProblemSolver(problem);
+    }
+}
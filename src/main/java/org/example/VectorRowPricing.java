@@ -0,0 +1,40 @@
+package org.example;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Explicit SIMD kernel on the preferred vector width. The row minimum keeps one running minimum per lane and
+// reduces the lanes once at the end; the column search compares a whole vector against the minimum and takes the
+// first matching lane. The row minimum finishes the columns past the last full vector in a scalar loop; the column
+// search loads them under a mask, with the lanes past the row left out.
+class VectorRowPricing implements FlatRowPricing {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public int rowMinimum(int[] rowCost, int offset, int ui, int[] v, int length) {
+        IntVector minimum = IntVector.zero(SPECIES);
+        int bound = SPECIES.loopBound(length), j = 0;
+        for (; j < bound; j += SPECIES.length()) {
+            IntVector delta = IntVector.fromArray(SPECIES, rowCost, offset + j).sub(ui).sub(IntVector.fromArray(SPECIES, v, j));
+            minimum = minimum.min(delta);
+        }
+        int rowDelta = minimum.reduceLanes(VectorOperators.MIN);
+        for (; j < length; ++j)
+            rowDelta = Math.min(rowDelta, rowCost[offset + j] - ui - v[j]);
+        return rowDelta;
+    }
+
+    @Override
+    public int columnOf(int[] rowCost, int offset, int ui, int[] v, int length, int delta) {
+        for (int j = 0; j < length; j += SPECIES.length()) {
+            VectorMask<Integer> inRow = SPECIES.indexInRange(j, length);
+            IntVector rowDelta = IntVector.fromArray(SPECIES, rowCost, offset + j, inRow).sub(ui).sub(IntVector.fromArray(SPECIES, v, j, inRow));
+            VectorMask<Integer> matches = rowDelta.compare(VectorOperators.EQ, delta, inRow);
+            if (matches.anyTrue())
+                return j + matches.firstTrue();
+        }
+        return -1;
+    }
+}
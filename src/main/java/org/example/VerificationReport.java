@@ -0,0 +1,68 @@
+package org.example;
+
+public class VerificationReport {
+    final boolean isFeasible, isNonNegative, isDualFeasible, isComplementary;
+    final long cost, dualObjective, elapsedNanos;
+    final String violation;
+
+    VerificationReport(boolean isFeasible, boolean isNonNegative, boolean isDualFeasible, boolean isComplementary,
+                       long cost, long dualObjective, String violation, long elapsedNanos) {
+        this.isFeasible = isFeasible;
+        this.isNonNegative = isNonNegative;
+        this.isDualFeasible = isDualFeasible;
+        this.isComplementary = isComplementary;
+        this.cost = cost;
+        this.dualObjective = dualObjective;
+        this.violation = violation;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // Every row ships exactly its supply and every column gets exactly its demand
+    public boolean isFeasible() {
+        return isFeasible;
+    }
+
+    public boolean isNonNegative() {
+        return isNonNegative;
+    }
+
+    // No cell has a negative reduced cost cost[i][j] - u[i] - v[j]
+    public boolean isDualFeasible() {
+        return isDualFeasible;
+    }
+
+    // Every cell that ships something has a reduced cost of 0
+    public boolean isComplementary() {
+        return isComplementary;
+    }
+
+    // A feasible allocation and feasible potentials that satisfy complementary slackness prove each other optimal;
+    // the objectives of both then agree as well
+    public boolean isOptimal() {
+        return isFeasible && isNonNegative && isDualFeasible && isComplementary && cost == dualObjective;
+    }
+
+    public long getCost() {
+        return cost;
+    }
+
+    // Sum of supply[i] * u[i] plus the sum of demand[j] * v[j]
+    public long getDualObjective() {
+        return dualObjective;
+    }
+
+    // First violation found in row order, or null if there is none
+    public String getViolation() {
+        return violation;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return (isOptimal() ? "optimal" : violation == null ? "not optimal" : violation) + ", cost " + cost
+                + ", dual objective " + dualObjective + ", checked in " + elapsedNanos / 1_000_000 + "ms";
+    }
+}
@@ -0,0 +1,10 @@
+package org.example;
+
+public class VogelApproximationMethod implements InitialBasisMethod {
+    @Override
+    public void allocate(int[][] cost, int[] supply, int[] demand, BasicCells basicCells) {
+        VogelTableau tableau = new VogelTableau(cost, supply, demand);
+        while (!tableau.isFinished())
+            tableau.allocate(tableau.selectLine(0, tableau.m + tableau.n), basicCells);
+    }
+}
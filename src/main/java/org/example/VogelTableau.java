@@ -0,0 +1,121 @@
+package org.example;
+
+// Working state of Vogel's approximation method. Lines are numbered 0..m-1 for rows and m..m+n-1 for columns.
+// Every open line caches its cheapest and second cheapest open cell; the cache is only rebuilt once one of those
+// two cells gets closed, so most lines keep their penalty between iterations.
+class VogelTableau {
+    static final int NONE = -1;
+
+    final int m, n;
+    final int[][] cost;
+    final int[] supply, demand;
+    final int[] best, second;
+    final boolean[] closed;
+    int openRows, openColumns;
+
+    VogelTableau(int[][] cost, int[] supply, int[] demand) {
+        this.m = supply.length;
+        this.n = demand.length;
+        this.cost = cost;
+        this.supply = supply;
+        this.demand = demand;
+        this.best = new int[m + n];
+        this.second = new int[m + n];
+        this.closed = new boolean[m + n];
+
+        for (int i = 0; i < m; ++i) {
+            closed[i] = supply[i] == 0;
+            if (!closed[i])
+                ++openRows;
+        }
+        for (int j = 0; j < n; ++j) {
+            closed[m + j] = demand[j] == 0;
+            if (!closed[m + j])
+                ++openColumns;
+        }
+        for (int line = 0; line < m + n; ++line)
+            refresh(line);
+    }
+
+    boolean isFinished() {
+        return openRows == 0 || openColumns == 0;
+    }
+
+    // Open line with the largest penalty among [fromLine, toLine), the lowest index on ties; NONE if all are closed.
+    // Refreshes only the lines of the range, so disjoint ranges can be searched concurrently.
+    int selectLine(int fromLine, int toLine) {
+        int selected = NONE;
+        long maxPenalty = Long.MIN_VALUE;
+
+        for (int line = fromLine; line < toLine; ++line) {
+            if (closed[line])
+                continue;
+
+            refreshIfStale(line);
+            long linePenalty = penalty(line);
+            if (linePenalty > maxPenalty) {
+                maxPenalty = linePenalty;
+                selected = line;
+            }
+        }
+        return selected;
+    }
+
+    private void refreshIfStale(int line) {
+        int offset = line < m ? m : 0;
+        if (best[line] == NONE || closed[offset + best[line]] || (second[line] != NONE && closed[offset + second[line]]))
+            refresh(line);
+    }
+
+    // Penalty of an open line whose cache is fresh: the gap between its two cheapest cells, or the cost of the
+    // only cell left
+    long penalty(int line) {
+        if (second[line] == NONE)
+            return cellCost(line, best[line]);
+        return (long) cellCost(line, second[line]) - cellCost(line, best[line]);
+    }
+
+    // Allocates as much as possible to the cheapest cell of the line and closes every line that runs out
+    void allocate(int line, InitialBasisMethod.BasicCells basicCells) {
+        int i = line < m ? line : best[line];
+        int j = line < m ? best[line] : line - m;
+
+        int amount = Math.min(supply[i], demand[j]);
+        basicCells.add(i, j, amount);
+        supply[i] -= amount;
+        demand[j] -= amount;
+
+        if (supply[i] == 0) {
+            closed[i] = true;
+            --openRows;
+        }
+        if (demand[j] == 0) {
+            closed[m + j] = true;
+            --openColumns;
+        }
+    }
+
+    private void refresh(int line) {
+        best[line] = NONE;
+        second[line] = NONE;
+        if (closed[line])
+            return;
+
+        int offset = line < m ? m : 0, count = line < m ? n : m;
+        for (int k = 0; k < count; ++k) {
+            if (closed[offset + k])
+                continue;
+
+            int c = cellCost(line, k);
+            if (best[line] == NONE || c < cellCost(line, best[line])) {
+                second[line] = best[line];
+                best[line] = k;
+            } else if (second[line] == NONE || c < cellCost(line, second[line]))
+                second[line] = k;
+        }
+    }
+
+    private int cellCost(int line, int k) {
+        return line < m ? cost[line][k] : cost[k][line - m];
+    }
+}
@@ -0,0 +1,27 @@
+package org.example;
+
+// Transportation problem with 64-bit costs, supplies and demands for volumes whose totals overflow an int
+public class WideTransportationProblem {
+    final long[][] cost;
+    final long[] supply, demand;
+
+    WideTransportationProblem(long[][] cost, long[] supply, long[] demand) {
+        this.cost = cost;
+        this.supply = supply;
+        this.demand = demand;
+    }
+
+    public static WideTransportationProblem of(TransportationProblem problem) {
+        int m = problem.supply.length, n = problem.demand.length;
+        long[][] cost = new long[m][n];
+        long[] supply = new long[m], demand = new long[n];
+        for (int i = 0; i < m; ++i) {
+            supply[i] = problem.supply[i];
+            for (int j = 0; j < n; ++j)
+                cost[i][j] = problem.cost[i][j];
+        }
+        for (int j = 0; j < n; ++j)
+            demand[j] = problem.demand[j];
+        return new WideTransportationProblem(cost, supply, demand);
+    }
+}
@@ -0,0 +1,253 @@
+package org.example;
+
+import java.util.Arrays;
+
+// Transportation simplex on 64-bit costs and amounts. Overflow is ruled out once in the constructor: potentials are
+// alternating sums of at most m + n - 1 costs, a reduced cost adds one more cost, and the objective is at most the
+// total supply times the largest cost. If all of that fits into a long, the pivot loop can use plain arithmetic.
+public class WideTransportationProblemSolver implements PricingContext {
+    protected final int m, n;
+    protected final long[][] cost;
+    protected final long[] supply, demand;
+    protected final long[] u, v;
+    protected final boolean[][] basic;
+    protected final BasisTree basis;
+    protected final long[] edgeAmount;
+    protected int minI, minJ;
+    protected PricingStrategy pricingStrategy = new DantzigPricing();
+    protected int pivotCount;
+    protected long pricingTimeNanos;
+
+    public WideTransportationProblemSolver(WideTransportationProblem problem) {
+        this.m = problem.supply.length;
+        this.n = problem.demand.length;
+        this.cost = problem.cost;
+        this.supply = problem.supply;
+        this.demand = problem.demand;
+        this.u = new long[m];
+        this.v = new long[n];
+        this.basic = new boolean[m][n];
+        this.basis = new BasisTree(m, n);
+        this.edgeAmount = new long[m + n];
+
+        try {
+            long supplySum = sum(supply), demandSum = sum(demand);
+            if (supplySum != demandSum)
+                throw new RuntimeException("Supplies do not match demands");
+
+            long maxCost = 0;
+            for (long[] row : cost) {
+                for (long c : row)
+                    maxCost = Math.max(maxCost, Math.absExact(c));
+            }
+            Math.multiplyExact(maxCost, 2L * (m + n) + 1);
+            Math.multiplyExact(maxCost, supplySum);
+        } catch (ArithmeticException e) {
+            throw new RuntimeException("Costs and amounts of the problem overflow 64-bit arithmetic");
+        }
+    }
+
+    private static long sum(long[] amounts) {
+        long total = 0;
+        for (long amount : amounts) {
+            if (amount < 0)
+                throw new RuntimeException("Supplies and demands must not be negative");
+            total = Math.addExact(total, amount);
+        }
+        return total;
+    }
+
+    public void solve() {
+        pivotCount = 0;
+        pricingTimeNanos = 0;
+        pricingStrategy.reset();
+
+        northwestCornerMethod();
+        computePotentials();
+        while (true) {
+            long startTime = System.nanoTime();
+            boolean isImproving = pricingStrategy.selectEnteringCell(this);
+            pricingTimeNanos += System.nanoTime() - startTime;
+            if (!isImproving)
+                break;
+
+            ++pivotCount;
+            pivot();
+        }
+    }
+
+    protected void northwestCornerMethod() {
+        basis.clear();
+        for (int i = 0; i < m; ++i)
+            Arrays.fill(basic[i], false);
+
+        int i = 0, j = 0;
+        long remainingSupply = supply[0], remainingDemand = demand[0];
+        while (true) {
+            long amount = Math.min(remainingSupply, remainingDemand);
+            edgeAmount[basis.addEdge(i, j)] = amount;
+            basic[i][j] = true;
+            remainingSupply -= amount;
+            remainingDemand -= amount;
+
+            if (i == m - 1 && j == n - 1)
+                break;
+            if (j == n - 1 || (i < m - 1 && remainingSupply == 0 && remainingDemand > 0))
+                remainingSupply = supply[++i];
+            else
+                remainingDemand = demand[++j];
+        }
+    }
+
+    protected void computePotentials() {
+        labelPotentials(basis.traverse());
+    }
+
+    protected void labelPotentials(int count) {
+        for (int k = 0; k < count; ++k) {
+            int node = basis.order[k];
+            int e = basis.parentEdge[node];
+            if (e == BasisTree.NONE) {
+                u[node] = 0;
+                continue;
+            }
+
+            int i = basis.edgeRow[e], j = basis.edgeCol[e];
+            if (basis.isRow(node))
+                u[i] = cost[i][j] - v[j];
+            else
+                v[j] = cost[i][j] - u[i];
+        }
+    }
+
+    protected void pivot() {
+        int length = basis.findCycle(minI, minJ);
+
+        int leavingEdge = BasisTree.NONE;
+        long minAmount = Long.MAX_VALUE;
+        for (int k = 0; k < length; k += 2) {
+            int e = basis.cycle[k];
+            if (edgeAmount[e] < minAmount) {
+                minAmount = edgeAmount[e];
+                leavingEdge = e;
+            }
+        }
+
+        for (int k = 0; k < length; ++k)
+            edgeAmount[basis.cycle[k]] += k % 2 == 0 ? -minAmount : minAmount;
+
+        basic[basis.edgeRow[leavingEdge]][basis.edgeCol[leavingEdge]] = false;
+        basic[minI][minJ] = true;
+        int relabelled = basis.pivot(minI, minJ, leavingEdge);
+        edgeAmount[basis.parentEdge[basis.order[0]]] = minAmount;
+        labelPotentials(relabelled);
+    }
+
+    @Override
+    public int priceRows(int fromRow, int toRow) {
+        long minDelta = Long.MAX_VALUE;
+        for (int i = fromRow; i < toRow; ++i) {
+            long[] costRow = cost[i];
+            boolean[] basicRow = basic[i];
+            long ui = u[i];
+            for (int j = 0; j < n; ++j) {
+                if (!basicRow[j]) {
+                    long delta = costRow[j] - (ui + v[j]);
+                    if (delta < minDelta) {
+                        minDelta = delta;
+                        minI = i;
+                        minJ = j;
+                    }
+                }
+            }
+        }
+        return saturate(minDelta);
+    }
+
+    @Override
+    public int findNegativeInRows(int fromRow, int toRow) {
+        for (int i = fromRow; i < toRow; ++i) {
+            for (int j = 0; j < n; ++j) {
+                long delta = cost[i][j] - (u[i] + v[j]);
+                if (!basic[i][j] && delta < 0) {
+                    minI = i;
+                    minJ = j;
+                    return saturate(delta);
+                }
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int rowCount() {
+        return m;
+    }
+
+    @Override
+    public int columnCount() {
+        return n;
+    }
+
+    @Override
+    public boolean isBasic(int i, int j) {
+        return basic[i][j];
+    }
+
+    // Pricing strategies compare int reduced costs; saturating keeps their sign and order up to the int range
+    @Override
+    public int reducedCost(int i, int j) {
+        return saturate(cost[i][j] - (u[i] + v[j]));
+    }
+
+    @Override
+    public int enteringRow() {
+        return minI;
+    }
+
+    @Override
+    public int enteringColumn() {
+        return minJ;
+    }
+
+    @Override
+    public void setEnteringCell(int i, int j) {
+        minI = i;
+        minJ = j;
+    }
+
+    public void setPricingStrategy(PricingStrategy pricingStrategy) {
+        this.pricingStrategy = pricingStrategy;
+    }
+
+    public int getPivotCount() {
+        return pivotCount;
+    }
+
+    public long getPricingTimeNanos() {
+        return pricingTimeNanos;
+    }
+
+    // Shipped amounts, 0 for cells outside the basis
+    public long[][] getAllocation() {
+        long[][] allocation = new long[m][n];
+        for (int node = 1; node < basis.nodeCount; ++node) {
+            int e = basis.parentEdge[node];
+            allocation[basis.edgeRow[e]][basis.edgeCol[e]] = edgeAmount[e];
+        }
+        return allocation;
+    }
+
+    public long getCost() {
+        long totalCost = 0;
+        for (int node = 1; node < basis.nodeCount; ++node) {
+            int e = basis.parentEdge[node];
+            totalCost += edgeAmount[e] * cost[basis.edgeRow[e]][basis.edgeCol[e]];
+        }
+        return totalCost;
+    }
+
+    private static int saturate(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+}
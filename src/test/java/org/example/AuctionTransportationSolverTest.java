@@ -0,0 +1,35 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Every optimum has the same cost, so the auction solution has to match the network simplex whatever the number of
+// threads bidding
+class AuctionTransportationSolverTest {
+    @Test
+    void matchesNetworkSimplex() {
+        for (int threads = 1; threads <= 4; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                for (int seed = 0; seed < 10; ++seed) {
+                    int m = 10 + seed * 7, n = 80 - seed * 5;
+                    TransportationProblem problem = TransportationProblemGenerator.generate(m, n, 10 + seed * 20, 100, 100, seed);
+                    NetworkSimplexSolver networkSolver = new NetworkSimplexSolver(problem);
+                    networkSolver.solve();
+                    AuctionTransportationSolver auctionSolver = new AuctionTransportationSolver(problem, pool, threads);
+                    auctionSolver.solve();
+
+                    String name = m + "x" + n + ", seed " + seed + ", " + threads + " threads";
+                    assertTrue(SolutionValidator.isFeasible(problem, auctionSolver.getAllocation()), name);
+                    assertEquals(networkSolver.getCost(), auctionSolver.getCost(), name);
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchSolverTest {
+    @Test
+    void matchesSolvingOneByOne() {
+        Random random = new Random(1);
+        List<TransportationProblem> problems = new ArrayList<>();
+        for (int k = 0; k < 200; ++k)
+            problems.add(TransportationProblemGenerator.generate(random.nextInt(30) + 5, random.nextInt(30) + 5, 10, 100, 100, k));
+
+        BatchReport forkJoinReport = new BatchSolver().solveAll(problems.stream());
+        BatchReport virtualReport;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            virtualReport = new BatchSolver(executor, 4).solveAll(problems.stream());
+        }
+
+        for (BatchReport report : new BatchReport[]{forkJoinReport, virtualReport}) {
+            assertEquals(0, report.getFailureCount());
+            assertEquals(problems.size(), report.getResults().size());
+            for (BatchResult result : report.getResults()) {
+                TransportationProblemSolver solver = new TransportationProblemSolver(problems.get(result.getIndex()));
+                solver.solve();
+                assertTrue(result.isSolved(), "problem " + result.getIndex());
+                assertEquals(solver.getCost(), result.getCost(), "problem " + result.getIndex());
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CapacitatedTransportationProblemSolverTest {
+    @Test
+    void unlimitedCellsMatchUncapacitatedSolver() {
+        for (int seed = 0; seed < 10; ++seed) {
+            int m = 10 + seed * 4, n = 50 - seed * 3;
+            TransportationProblem problem = TransportationProblemGenerator.generate(m, n, 10, 100, 100, seed);
+            TransportationProblemSolver uncapacitatedSolver = new TransportationProblemSolver(problem);
+            uncapacitatedSolver.solve();
+            CapacitatedTransportationProblemSolver solver = new CapacitatedTransportationProblemSolver(problem, (i, j) -> CellCapacities.UNLIMITED);
+            solver.solve();
+            assertEquals(uncapacitatedSolver.getCost(), solver.getCost(), m + "x" + n + ", seed " + seed);
+        }
+    }
+
+    @Test
+    void cappedCellsStayWithinCapacity() {
+        Random random = new Random(15);
+        for (int seed = 0; seed < 10; ++seed) {
+            int size = 20 + seed * 3;
+            TransportationProblem problem = TransportationProblemGenerator.generate(size, size, 10, 100, 100, seed);
+            int[][] capacity = new int[size][size];
+            for (int i = 0; i < size; ++i) {
+                for (int j = 0; j < size; ++j)
+                    capacity[i][j] = random.nextDouble() < 0.2 ? random.nextInt(20) + 1 : CellCapacities.UNLIMITED;
+            }
+            TransportationProblemSolver uncapacitatedSolver = new TransportationProblemSolver(problem);
+            uncapacitatedSolver.solve();
+            CapacitatedTransportationProblemSolver solver = new CapacitatedTransportationProblemSolver(problem, CellCapacities.dense(capacity));
+            solver.solve();
+
+            String name = size + "x" + size + ", seed " + seed;
+            int[][] allocation = solver.getAllocation();
+            assertTrue(SolutionValidator.isFeasible(problem, allocation), name);
+            for (int i = 0; i < size; ++i) {
+                for (int j = 0; j < size; ++j)
+                    assertTrue(allocation[i][j] <= capacity[i][j], name + ", cell (" + i + ", " + j + ")");
+            }
+            assertEquals(SolutionValidator.totalCost(problem, allocation), solver.getCost(), name);
+            assertTrue(solver.getCost() >= uncapacitatedSolver.getCost(), name);
+            assertEquals(minCostFlow(problem, capacity), solver.getCost(), name);
+        }
+    }
+
+    // x00 = a gives a + 3 (10 - a) + 2 (10 - a) + 6 a = 50 + 2 a; the cap of 4 on cell (0, 1) forces a >= 6
+    @Test
+    void cappedCellMovesOptimum() {
+        int[][] cost = {
+                {1, 3},
+                {2, 6}
+        };
+        TransportationProblem problem = new TransportationProblem(cost, new int[]{10, 10}, new int[]{10, 10});
+        CapacitatedTransportationProblemSolver solver = new CapacitatedTransportationProblemSolver(problem,
+                (i, j) -> i == 0 && j == 1 ? 4 : CellCapacities.UNLIMITED);
+        solver.solve();
+        assertEquals(62, solver.getCost());
+        int[][] allocation = solver.getAllocation();
+        assertEquals(6, allocation[0][0]);
+        assertEquals(4, allocation[0][1]);
+        assertEquals(4, allocation[1][0]);
+        assertEquals(6, allocation[1][1]);
+    }
+
+    // Reference optimum by successive shortest paths: source -> rows -> columns -> sink, with Bellman-Ford on the
+    // residual network, which has negative arcs wherever flow can be taken back
+    private static long minCostFlow(TransportationProblem problem, int[][] capacity) {
+        int m = problem.supply.length, n = problem.demand.length;
+        int[] rowLeft = problem.supply.clone(), columnLeft = problem.demand.clone();
+        int[][] flow = new int[m][n];
+        long[] distance = new long[m + n];
+        int[] previous = new int[m + n];
+        long totalCost = 0;
+
+        while (true) {
+            // rows with supply left are the sources of the paths; node k < m is row k, node m + j column j
+            Arrays.fill(distance, Long.MAX_VALUE);
+            Arrays.fill(previous, -1);
+            for (int i = 0; i < m; ++i) {
+                if (rowLeft[i] > 0)
+                    distance[i] = 0;
+            }
+            boolean isRelaxed = true;
+            while (isRelaxed) {
+                isRelaxed = false;
+                for (int i = 0; i < m; ++i) {
+                    for (int j = 0; j < n; ++j) {
+                        if (distance[i] != Long.MAX_VALUE && flow[i][j] < capacity[i][j] && distance[i] + problem.cost[i][j] < distance[m + j]) {
+                            distance[m + j] = distance[i] + problem.cost[i][j];
+                            previous[m + j] = i;
+                            isRelaxed = true;
+                        }
+                        if (distance[m + j] != Long.MAX_VALUE && flow[i][j] > 0 && distance[m + j] - problem.cost[i][j] < distance[i]) {
+                            distance[i] = distance[m + j] - problem.cost[i][j];
+                            previous[i] = m + j;
+                            isRelaxed = true;
+                        }
+                    }
+                }
+            }
+
+            int end = -1;
+            for (int j = 0; j < n; ++j) {
+                if (columnLeft[j] > 0 && distance[m + j] != Long.MAX_VALUE && (end == -1 || distance[m + j] < distance[end]))
+                    end = m + j;
+            }
+            if (end == -1)
+                break;
+
+            int start = end, amount = columnLeft[end - m];
+            for (int node = end; previous[node] != -1; node = previous[node]) {
+                int from = previous[node];
+                amount = Math.min(amount, node >= m ? capacity[from][node - m] - flow[from][node - m] : flow[node][from - m]);
+                start = from;
+            }
+            amount = Math.min(amount, rowLeft[start]);
+
+            for (int node = end; previous[node] != -1; node = previous[node]) {
+                int from = previous[node];
+                if (node >= m)
+                    flow[from][node - m] += amount;
+                else
+                    flow[node][from - m] -= amount;
+            }
+            rowLeft[start] -= amount;
+            columnLeft[end - m] -= amount;
+            totalCost += amount * distance[end];
+        }
+
+        for (int left : columnLeft)
+            assertEquals(0, left);
+        return totalCost;
+    }
+}
@@ -0,0 +1,91 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DecomposingTransportationSolverTest {
+    private static final int FORBIDDEN_COST = 1_000_000;
+
+    // the forbidden cost 10 is no big-M here: shipping over (0, 1) and (1, 0) costs 10 against 18 for the diagonal
+    @Test
+    void neverShipsOverForbiddenCells() {
+        TransportationProblem problem = new TransportationProblem(new int[][]{{9, 10}, {0, 9}}, new int[]{1, 1}, new int[]{1, 1});
+        DecomposingTransportationSolver solver = new DecomposingTransportationSolver(problem, 10);
+        solver.solve();
+        assertEquals(18, solver.getCost());
+        assertEquals(0, solver.getAllocation()[0][1]);
+    }
+
+    @Test
+    void matchesNetworkSimplexOnBlocks() {
+        Random random = new Random(22);
+        for (int seed = 0; seed < 10; ++seed) {
+            int blocks = 1 + seed % 4, blockSize = 5 + seed * 2;
+            TransportationProblem problem = blockProblem(blocks, blockSize, random, 1);
+            NetworkSimplexSolver wholeSolver = new NetworkSimplexSolver(problem);
+            wholeSolver.solve();
+            DecomposingTransportationSolver solver = new DecomposingTransportationSolver(problem, FORBIDDEN_COST);
+            solver.solve();
+
+            String name = blocks + " blocks of " + blockSize + ", seed " + seed;
+            assertEquals(blocks, solver.getBlockCount(), name);
+            assertTrue(SolutionValidator.isFeasible(problem, solver.getAllocation()), name);
+            assertEquals(wholeSolver.getCost(), solver.getCost(), name);
+        }
+    }
+
+    // costs this large leave no room for a big-M in int potentials, so the blocks are solved over their lanes
+    @Test
+    void largeCostsSolveOverPermittedLanes() {
+        Random random = new Random(23);
+        for (int seed = 0; seed < 5; ++seed) {
+            TransportationProblem problem = blockProblem(3, 8, random, 10_000_000);
+            WideTransportationProblem wideProblem = WideTransportationProblem.of(problem);
+            for (long[] costRow : wideProblem.cost) {
+                for (int j = 0; j < costRow.length; ++j)
+                    costRow[j] = costRow[j] == Integer.MAX_VALUE ? 1L << 50 : costRow[j];
+            }
+            WideTransportationProblemSolver wideSolver = new WideTransportationProblemSolver(wideProblem);
+            wideSolver.solve();
+            DecomposingTransportationSolver solver = new DecomposingTransportationSolver(problem, Integer.MAX_VALUE);
+            solver.solve();
+            assertEquals(wideSolver.getCost(), solver.getCost(), "seed " + seed);
+        }
+    }
+
+    @Test
+    void rejectsSuppliesThatCannotBeDelivered() {
+        TransportationProblem problem = new TransportationProblem(
+                new int[][]{{1, FORBIDDEN_COST}, {FORBIDDEN_COST, 1}}, new int[]{2, 1}, new int[]{1, 2});
+        assertThrows(RuntimeException.class, () -> new DecomposingTransportationSolver(problem, FORBIDDEN_COST).solve());
+    }
+
+    // balanced blocks on a shuffled diagonal; every lane between blocks is forbidden
+    private static TransportationProblem blockProblem(int blocks, int blockSize, Random random, int costScale) {
+        int size = blocks * blockSize;
+        int forbidden = costScale > 1 ? Integer.MAX_VALUE : FORBIDDEN_COST;
+        int[] blockOf = new int[size];
+        for (int k = 0; k < size; ++k)
+            blockOf[k] = k % blocks;
+        int[][] cost = new int[size][size];
+        int[] supply = new int[size], demand = new int[size];
+        for (int i = 0; i < size; ++i) {
+            supply[i] = 1 + random.nextInt(50);
+            demand[i] = supply[i];
+            for (int j = 0; j < size; ++j)
+                cost[i][j] = blockOf[i] == blockOf[j] ? (1 + random.nextInt(100)) * costScale : forbidden;
+        }
+        // move demand between the columns of each block without changing its total
+        for (int j = blocks; j < size; ++j) {
+            int amount = random.nextInt(demand[j - blocks]);
+            demand[j - blocks] -= amount;
+            demand[j] += amount;
+        }
+        return new TransportationProblem(cost, supply, demand);
+    }
+}
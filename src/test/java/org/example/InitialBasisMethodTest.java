@@ -0,0 +1,56 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Every initial basis method has to hand the pivoting a feasible spanning basis; the optimum stays that of the
+// northwest corner start
+class InitialBasisMethodTest {
+    private static final InitialBasisMethod[] METHODS = {new LeastCostMethod(), new RowMinimumMethod(),
+            new VogelApproximationMethod(), new ParallelVogelApproximationMethod()};
+
+    @Test
+    void sequentialSolverStartsFeasible() {
+        checkStarts(TransportationProblemSolver::new);
+    }
+
+    @Test
+    void parallelSolverStartsFeasible() {
+        checkStarts(ParallelTransportationProblemSolver::new);
+    }
+
+    private static void checkStarts(Function<TransportationProblem, TransportationProblemSolver> solverFactory) {
+        for (int seed = 0; seed < 8; ++seed) {
+            int m = 10 + seed * 9, n = 70 - seed * 5;
+            TransportationProblem problem = TransportationProblemGenerator.generate(m, n, 50, 100, 100, seed);
+            TransportationProblemSolver northwestSolver = solverFactory.apply(problem);
+            northwestSolver.solve();
+
+            for (InitialBasisMethod method : METHODS) {
+                String message = method.getClass().getSimpleName() + ", " + m + "x" + n + ", seed " + seed;
+                // cancelled before the first pivot, the solve leaves the initial allocation behind
+                TransportationProblemSolver startSolver = solverFactory.apply(problem);
+                startSolver.setInitialBasisMethod(method);
+                startSolver.cancel();
+                startSolver.solve();
+                assertEquals(0, startSolver.getPivotCount(), message);
+                assertTrue(SolutionValidator.isFeasible(problem, startSolver.getAllocation()), message);
+                assertEquals(startSolver.getInitialCost(), startSolver.getCost(), message);
+                assertEquals(m + n - 1, startSolver.getBasis().size(), message);
+                // the cost-aware starts beat the northwest corner on uniform random costs
+                assertTrue(startSolver.getInitialCost() <= northwestSolver.getInitialCost(), message);
+
+                TransportationProblemSolver solver = solverFactory.apply(problem);
+                solver.setInitialBasisMethod(method);
+                solver.solve();
+                assertTrue(solver.isOptimal(), message);
+                assertEquals(startSolver.getInitialCost(), solver.getInitialCost(), message);
+                assertEquals(northwestSolver.getCost(), solver.getCost(), message);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedTransportationProblemSolverTest {
+    private Path problemFile;
+
+    @BeforeEach
+    void createFile() throws IOException {
+        problemFile = Files.createTempFile("problem", ".tprb");
+    }
+
+    @AfterEach
+    void deleteFile() throws IOException {
+        Files.deleteIfExists(problemFile);
+    }
+
+    @Test
+    void matchesHeapSolver() {
+        for (int seed = 0; seed < 10; ++seed) {
+            int m = 10 + seed * 5, n = 60 - seed * 3;
+            TransportationProblem problem = TransportationProblemGenerator.generate(m, n, 10, 100, 100, seed);
+            ProblemFiles.write(problem, problemFile);
+            TransportationProblemSolver heapSolver = new TransportationProblemSolver(problem);
+            heapSolver.solve();
+            MappedTransportationProblemSolver mappedSolver = new MappedTransportationProblemSolver(ProblemFiles.map(problemFile));
+            mappedSolver.solve();
+            assertEquals(heapSolver.getCost(), mappedSolver.getCost(), m + "x" + n + ", seed " + seed);
+        }
+    }
+
+    // the cost change is refused before the supply change is applied, so the solver is still on the old problem
+    @Test
+    void rejectsCostChangesUpFront() {
+        TransportationProblem problem = TransportationProblemGenerator.generate(12, 9, 10, 100, 100, 3);
+        ProblemFiles.write(problem, problemFile);
+        MappedTransportationProblemSolver solver = new MappedTransportationProblemSolver(ProblemFiles.map(problemFile));
+        solver.solve();
+        long cost = solver.getCost();
+        int supply = problem.supply[0], demand = problem.demand[0];
+
+        ProblemChange change = new ProblemChange().setSupply(0, supply + 5).setDemand(0, demand + 5).setCost(1, 1, 3);
+        assertThrows(RuntimeException.class, () -> solver.resolve(change));
+        assertEquals(cost, solver.getCost());
+        assertEquals(supply, solver.problemSupply[0]);
+        assertEquals(demand, solver.problemDemand[0]);
+    }
+}
@@ -0,0 +1,25 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NetworkSimplexSolverTest {
+    @Test
+    void matchesModiSolver() {
+        for (int seed = 0; seed < 10; ++seed) {
+            int m = 5 + seed * 6, n = 60 - seed * 4;
+            TransportationProblem problem = TransportationProblemGenerator.generate(m, n, 10 + seed * 50, 100, 100, seed);
+            TransportationProblemSolver modiSolver = new TransportationProblemSolver(problem);
+            modiSolver.solve();
+            NetworkSimplexSolver networkSolver = new NetworkSimplexSolver(problem);
+            networkSolver.solve();
+
+            String name = m + "x" + n + ", seed " + seed;
+            assertTrue(SolutionValidator.isFeasible(problem, networkSolver.getAllocation()), name);
+            assertEquals(modiSolver.getCost(), SolutionValidator.totalCost(problem, networkSolver.getAllocation()), name);
+            assertEquals(modiSolver.getCost(), networkSolver.getCost(), name);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ParallelTransportationProblemSolverTest {
+    @Test
+    void matchesSequentialSolver() {
+        for (int seed = 0; seed < 10; ++seed) {
+            int size = 20 + seed * 15;
+            TransportationProblem problem = TransportationProblemGenerator.generate(size, size, 10, 100, 100, seed);
+            TransportationProblemSolver sequentialSolver = new TransportationProblemSolver(problem);
+            sequentialSolver.solve();
+            ParallelTransportationProblemSolver parallelSolver = new ParallelTransportationProblemSolver(problem);
+            parallelSolver.solve();
+            assertEquals(sequentialSolver.getCost(), parallelSolver.getCost(), size + "x" + size + ", seed " + seed);
+        }
+    }
+
+    // m + n above MIN_PARALLEL_NODES, so long chains and wide levels of the basis tree are split up as well. The
+    // thread count is fixed, as the common pool may have a single worker.
+    @Test
+    void matchesSequentialSolverAboveNodeThreshold() {
+        TransportationProblem problem = TransportationProblemGenerator.generate(1200, 1100, 10, 100, 100, 7);
+        TransportationProblemSolver sequentialSolver = new TransportationProblemSolver(problem);
+        sequentialSolver.solve();
+        ParallelTransportationProblemSolver parallelSolver = new ParallelTransportationProblemSolver(problem, ForkJoinPool.commonPool(), 4);
+        parallelSolver.solve();
+        assertEquals(sequentialSolver.getCost(), parallelSolver.getCost());
+    }
+
+    // outside a ForkJoinPool the chunks are joined with a Phaser instead of invokeAll
+    @Test
+    void matchesSequentialSolverOnFixedThreadPool() {
+        try (ExecutorService executor = Executors.newFixedThreadPool(3)) {
+            for (int seed = 0; seed < 4; ++seed) {
+                int m = 150 + seed * 50, n = 300 - seed * 30;
+                TransportationProblem problem = TransportationProblemGenerator.generate(m, n, 10, 100, 100, seed);
+                TransportationProblemSolver sequentialSolver = new TransportationProblemSolver(problem);
+                sequentialSolver.solve();
+                ParallelTransportationProblemSolver parallelSolver = new ParallelTransportationProblemSolver(problem, executor, 3);
+                parallelSolver.solve();
+                assertEquals(sequentialSolver.getCost(), parallelSolver.getCost(), m + "x" + n + ", seed " + seed);
+            }
+        }
+    }
+}
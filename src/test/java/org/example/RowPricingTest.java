@@ -0,0 +1,81 @@
+package org.example;
+
+import jdk.incubator.vector.IntVector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+// The Vector API kernel has to agree with the scalar loops on every row length, in particular around the vector
+// width where the main loop hands over to the tail, and on values whose reduced costs wrap around
+class RowPricingTest {
+    private static final int WIDTH = IntVector.SPECIES_PREFERRED.length();
+    private static final int OFFSET = 3;
+
+    private final FlatRowPricing scalar = FlatRowPricing.scalar(), vector = FlatRowPricing.vector();
+
+    @Test
+    void vectorKernelIsLoaded() {
+        assertInstanceOf(VectorRowPricing.class, vector);
+    }
+
+    @Test
+    void randomRowsAroundTheVectorWidth() {
+        Random random = new Random(18);
+        for (int length = 0; length <= 4 * WIDTH + 1; ++length) {
+            for (int t = 0; t < 50; ++t) {
+                int[] rowCost = new int[OFFSET + length + WIDTH], v = new int[length + WIDTH];
+                for (int j = 0; j < rowCost.length; ++j)
+                    rowCost[j] = random.nextInt(100);
+                for (int j = 0; j < v.length; ++j)
+                    v[j] = random.nextInt(100) - 50;
+                compare(rowCost, v, random.nextInt(100) - 50, length, random);
+            }
+        }
+    }
+
+    @Test
+    void extremeValues() {
+        int[] extremes = {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, -1, 0, 1, Integer.MAX_VALUE - 1, Integer.MAX_VALUE};
+        Random random = new Random(7);
+        for (int length : new int[]{1, WIDTH - 1, WIDTH, WIDTH + 1, 2 * WIDTH, 2 * WIDTH + 1}) {
+            if (length <= 0)
+                continue;
+            for (int t = 0; t < 200; ++t) {
+                int[] rowCost = new int[OFFSET + length], v = new int[length];
+                for (int j = 0; j < rowCost.length; ++j)
+                    rowCost[j] = extremes[random.nextInt(extremes.length)];
+                for (int j = 0; j < length; ++j)
+                    v[j] = extremes[random.nextInt(extremes.length)];
+                compare(rowCost, v, extremes[random.nextInt(extremes.length)], length, random);
+            }
+        }
+    }
+
+    @Test
+    void minimumInTheLastColumn() {
+        for (int length = 1; length <= 3 * WIDTH + 1; ++length) {
+            int[] rowCost = new int[OFFSET + length], v = new int[length];
+            rowCost[OFFSET + length - 1] = -5;
+            assertEquals(-5, vector.rowMinimum(rowCost, OFFSET, 0, v, length), "length " + length);
+            assertEquals(length - 1, vector.columnOf(rowCost, OFFSET, 0, v, length, -5), "length " + length);
+        }
+    }
+
+    private void compare(int[] rowCost, int[] v, int ui, int length, Random random) {
+        int minimum = scalar.rowMinimum(rowCost, OFFSET, ui, v, length);
+        assertEquals(minimum, vector.rowMinimum(rowCost, OFFSET, ui, v, length), "row minimum, length " + length);
+        assertEquals(scalar.columnOf(rowCost, OFFSET, ui, v, length, minimum),
+                vector.columnOf(rowCost, OFFSET, ui, v, length, minimum), "column of the minimum, length " + length);
+
+        // a reduced cost that occurs somewhere in the row, and one that most likely does not
+        int j = length == 0 ? 0 : random.nextInt(length);
+        int delta = length == 0 ? 0 : rowCost[OFFSET + j] - ui - v[j];
+        for (int target : new int[]{delta, Integer.MIN_VALUE / 2 + 11}) {
+            assertEquals(scalar.columnOf(rowCost, OFFSET, ui, v, length, target),
+                    vector.columnOf(rowCost, OFFSET, ui, v, length, target), "column of " + target + ", length " + length);
+        }
+    }
+}
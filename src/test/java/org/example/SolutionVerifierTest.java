@@ -0,0 +1,145 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolutionVerifierTest {
+    private final SolutionVerifier verifier = new SolutionVerifier(ForkJoinPool.commonPool(), 3);
+
+    @Test
+    void optimalSolveIsCertified() {
+        for (int seed = 0; seed < 5; ++seed) {
+            TransportationProblem problem = TransportationProblemGenerator.generate(20 + seed * 10, 30, 50, 100, 100, seed);
+            for (TransportationProblemSolver solver : new TransportationProblemSolver[]{new TransportationProblemSolver(problem),
+                    new ParallelTransportationProblemSolver(problem)}) {
+                solver.solve();
+                VerificationReport report = verifier.verify(problem, solver.getAllocation(), solver.getRowPotentials(), solver.getColumnPotentials());
+                assertTrue(report.isOptimal(), report.toString());
+                assertEquals(solver.getCost(), report.getCost());
+                assertEquals(report.getCost(), report.getDualObjective());
+            }
+
+            NetworkSimplexSolver networkSolver = new NetworkSimplexSolver(problem);
+            networkSolver.solve();
+            VerificationReport report = verifier.verify(problem, networkSolver.getAllocation(), networkSolver.getRowPotentials(),
+                    networkSolver.getColumnPotentials());
+            assertTrue(report.isOptimal(), report.toString());
+        }
+    }
+
+    // moving a unit around a 2x2 cycle keeps every row and column sum, but puts flow on a cell with a positive
+    // reduced cost
+    @Test
+    void swapOntoPricedCellIsNotOptimal() {
+        TransportationProblem problem = TransportationProblemGenerator.generate(30, 30, 50, 100, 100, 24);
+        TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+        solver.solve();
+        int[][] allocation = copy(solver.getAllocation());
+        long[] u = solver.getRowPotentials(), v = solver.getColumnPotentials();
+
+        boolean isSwapped = false;
+        for (int i1 = 0; i1 < 30 && !isSwapped; ++i1) {
+            for (int j1 = 0; j1 < 30 && !isSwapped; ++j1) {
+                for (int i2 = 0; i2 < 30 && !isSwapped && allocation[i1][j1] > 0; ++i2) {
+                    for (int j2 = 0; j2 < 30 && !isSwapped && i2 != i1; ++j2) {
+                        if (j2 == j1 || allocation[i2][j2] == 0 || problem.cost[i1][j2] - u[i1] - v[j2] <= 0)
+                            continue;
+                        --allocation[i1][j1];
+                        ++allocation[i1][j2];
+                        --allocation[i2][j2];
+                        ++allocation[i2][j1];
+                        isSwapped = true;
+                    }
+                }
+            }
+        }
+        assertTrue(isSwapped);
+
+        VerificationReport report = verifier.verify(problem, allocation, u, v);
+        assertTrue(report.isFeasible(), report.toString());
+        assertTrue(report.isNonNegative(), report.toString());
+        assertFalse(report.isComplementary(), report.toString());
+        assertFalse(report.isOptimal(), report.toString());
+        assertEquals(SolutionValidator.totalCost(problem, allocation), report.getCost());
+    }
+
+    @Test
+    void brokenRowSumIsInfeasible() {
+        TransportationProblem problem = TransportationProblemGenerator.generate(15, 12, 50, 100, 100, 5);
+        TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+        solver.solve();
+        int[][] allocation = copy(solver.getAllocation());
+        // a cell that already ships has a reduced cost of 0, so the row sum is the first thing off
+        int j = 0;
+        while (allocation[3][j] == 0)
+            ++j;
+        ++allocation[3][j];
+
+        VerificationReport report = verifier.verify(problem, allocation, solver.getRowPotentials(), solver.getColumnPotentials());
+        assertFalse(report.isFeasible());
+        assertFalse(report.isOptimal());
+        assertNotNull(report.getViolation());
+        assertTrue(report.getViolation().startsWith("row 3 ships"), report.getViolation());
+    }
+
+    // a unit moved between two shipping cells of a row keeps the row sums and complementary slackness; only the two
+    // columns are off
+    @Test
+    void brokenColumnSumIsInfeasible() {
+        TransportationProblem problem = TransportationProblemGenerator.generate(15, 12, 50, 100, 100, 6);
+        TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+        solver.solve();
+        int[][] allocation = copy(solver.getAllocation());
+        int row = -1, from = -1, to = -1;
+        for (int i = 0; i < 15 && row == -1; ++i) {
+            from = -1;
+            for (int j = 0; j < 12 && row == -1; ++j) {
+                if (allocation[i][j] == 0)
+                    continue;
+                if (from == -1) {
+                    from = j;
+                } else {
+                    row = i;
+                    to = j;
+                }
+            }
+        }
+        assertTrue(row != -1);
+        --allocation[row][from];
+        ++allocation[row][to];
+
+        VerificationReport report = verifier.verify(problem, allocation, solver.getRowPotentials(), solver.getColumnPotentials());
+        assertFalse(report.isFeasible());
+        assertTrue(report.isComplementary());
+        assertNotNull(report.getViolation());
+        assertTrue(report.getViolation().startsWith("column " + from + " gets"), report.getViolation());
+    }
+
+    // raising one row potential makes the basic cells of that row price below 0
+    @Test
+    void perturbedPotentialsAreNotDualFeasible() {
+        TransportationProblem problem = TransportationProblemGenerator.generate(15, 12, 50, 100, 100, 7);
+        TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+        solver.solve();
+        long[] u = solver.getRowPotentials();
+        ++u[4];
+
+        VerificationReport report = verifier.verify(problem, solver.getAllocation(), u, solver.getColumnPotentials());
+        assertTrue(report.isFeasible());
+        assertFalse(report.isDualFeasible());
+        assertFalse(report.isOptimal());
+    }
+
+    private static int[][] copy(int[][] allocation) {
+        int[][] copy = new int[allocation.length][];
+        for (int i = 0; i < allocation.length; ++i)
+            copy[i] = allocation[i].clone();
+        return copy;
+    }
+}
@@ -0,0 +1,79 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Time limits, cancellation and checkpoints stop the pivoting early, but always leave a feasible allocation behind
+class SolverControlTest {
+    // a few hundred pivots of 400x400 pricing each take far longer than the 1 ms limit
+    private static final int SIZE = 400;
+
+    @Test
+    void timeLimitStopsWithFeasibleAllocation() {
+        TransportationProblem problem = TransportationProblemGenerator.generate(SIZE, SIZE, 1000, 100, 100, 23);
+        TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+        solver.setTimeLimit(1);
+        solver.solve();
+        assertFalse(solver.isOptimal());
+        assertTrue(SolutionValidator.isFeasible(problem, solver.getAllocation()));
+        assertEquals(SolutionValidator.totalCost(problem, solver.getAllocation()), solver.getCost());
+
+        TransportationProblemSolver coldSolver = new TransportationProblemSolver(problem);
+        coldSolver.solve();
+        assertTrue(coldSolver.isOptimal());
+        assertTrue(solver.getCost() > coldSolver.getCost());
+    }
+
+    @Test
+    void checkpointResumesToColdOptimum() throws IOException {
+        TransportationProblem problem = TransportationProblemGenerator.generate(SIZE, SIZE, 1000, 100, 100, 24);
+        TransportationProblemSolver coldSolver = new TransportationProblemSolver(problem);
+        coldSolver.solve();
+
+        Path checkpoint = Files.createTempFile("checkpoint", ".basis");
+        try {
+            TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+            solver.setTimeLimit(1);
+            solver.setCheckpoint(checkpoint, 0);
+            solver.solve();
+            assertFalse(solver.isOptimal());
+
+            // the checkpoint written on stopping is the basis the solve stopped at
+            Basis basis = ProblemFiles.readBasis(checkpoint);
+            TransportationProblemSolver resumedSolver = new TransportationProblemSolver(problem);
+            resumedSolver.solve(basis);
+            assertEquals(solver.getCost(), resumedSolver.getInitialCost());
+            assertTrue(resumedSolver.isOptimal());
+            assertEquals(coldSolver.getCost(), resumedSolver.getCost());
+            assertTrue(resumedSolver.getPivotCount() < coldSolver.getPivotCount());
+        } finally {
+            Files.deleteIfExists(checkpoint);
+        }
+    }
+
+    @Test
+    void cancelBeforeSolveStopsOnlyThatSolve() {
+        TransportationProblem problem = TransportationProblemGenerator.generate(50, 60, 100, 100, 100, 25);
+        TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+        solver.cancel();
+        solver.solve();
+        assertEquals(0, solver.getPivotCount());
+        assertFalse(solver.isOptimal());
+        assertTrue(SolutionValidator.isFeasible(problem, solver.getAllocation()));
+        assertEquals(solver.getInitialCost(), solver.getCost());
+
+        TransportationProblemSolver coldSolver = new TransportationProblemSolver(problem);
+        coldSolver.solve();
+        solver.solve();
+        assertTrue(solver.isOptimal());
+        assertTrue(solver.getPivotCount() > 0);
+        assertEquals(coldSolver.getCost(), solver.getCost());
+    }
+}
@@ -0,0 +1,168 @@
+package org.example;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The callbacks have to agree with the solver's own counters, whichever listener consumes them
+class SolverListenerTest {
+    @Test
+    void callbacksMatchSolverCounters() {
+        for (TransportationProblem problem : problems()) {
+            for (TransportationProblemSolver solver : new TransportationProblemSolver[]{new TransportationProblemSolver(problem),
+                    new ParallelTransportationProblemSolver(problem)}) {
+                RecordingListener listener = new RecordingListener();
+                solver.setListener(listener);
+                solver.solve();
+
+                String message = solver.getClass().getSimpleName() + ", " + problem.supply.length + "x" + problem.demand.length;
+                assertEquals(1, listener.solvesStarted, message);
+                assertEquals(1, listener.solvesFinished, message);
+                assertEquals(solver.getInitialCost(), listener.initialObjective, message);
+                assertEquals(solver.getPivotCount(), listener.pivots, message);
+                assertEquals(solver.getPivotCount(), listener.finishedPivots, message);
+                assertEquals(solver.getDegeneratePivotCount(), listener.degeneratePivots, message);
+                assertEquals(solver.getCost(), listener.lastObjective, message);
+                assertEquals(solver.getCost(), listener.finishedCost, message);
+                assertEquals(EnumSet.allOf(SolverPhase.class), listener.phases, message);
+            }
+        }
+    }
+
+    @Test
+    void metricsAddUpSolves() {
+        SolverMetrics metrics = new SolverMetrics();
+        long pivots = 0, degeneratePivots = 0;
+        TransportationProblemSolver solver = null;
+        for (TransportationProblem problem : problems()) {
+            solver = new TransportationProblemSolver(problem);
+            solver.setListener(metrics.listener());
+            solver.solve();
+            pivots += solver.getPivotCount();
+            degeneratePivots += solver.getDegeneratePivotCount();
+        }
+
+        assertEquals(problems().size(), metrics.getSolveCount());
+        assertEquals(pivots, metrics.getPivotCount());
+        assertEquals(degeneratePivots, metrics.getDegeneratePivotCount());
+        assertTrue(metrics.getLongestDegenerateRun() > 0);
+
+        SolveReport report = metrics.getLastSolve();
+        long[] objectives = report.getObjectives();
+        assertEquals(solver.getPivotCount(), report.getPivots());
+        assertEquals(solver.getDegeneratePivotCount(), report.getDegeneratePivots());
+        assertEquals(solver.getCost(), report.getCost());
+        assertEquals(solver.getPivotCount() + 1, objectives.length);
+        assertEquals(solver.getInitialCost(), objectives[0]);
+        assertEquals(solver.getCost(), objectives[objectives.length - 1]);
+        for (int k = 1; k < objectives.length; ++k)
+            assertTrue(objectives[k] <= objectives[k - 1], "pivot " + k);
+    }
+
+    @Test
+    void jfrEventsMatchSolverCounters() throws IOException {
+        TransportationProblem problem = problems().get(1);
+        TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+        solver.setListener(new JfrSolverListener());
+
+        Path path = Files.createTempFile("solve", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.example.Solve");
+            recording.enable("org.example.Pivot");
+            recording.start();
+            solver.solve();
+            recording.stop();
+            recording.dump(path);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(path);
+            RecordedEvent solveEvent = null;
+            int pivotEvents = 0;
+            long lastObjective = -1;
+            for (RecordedEvent event : events) {
+                String name = event.getEventType().getName();
+                if (name.equals("org.example.Solve"))
+                    solveEvent = event;
+                else if (name.equals("org.example.Pivot")) {
+                    ++pivotEvents;
+                    if (event.getInt("pivot") == solver.getPivotCount())
+                        lastObjective = event.getLong("objective");
+                }
+            }
+
+            assertTrue(solveEvent != null);
+            assertEquals(solver.getPivotCount(), solveEvent.getInt("pivots"));
+            assertEquals(solver.getDegeneratePivotCount(), solveEvent.getInt("degeneratePivots"));
+            assertEquals(solver.getCost(), solveEvent.getLong("cost"));
+            assertEquals(problem.supply.length, solveEvent.getInt("rows"));
+            assertEquals(solver.getPivotCount(), pivotEvents);
+            assertEquals(solver.getCost(), lastObjective);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    // a generated problem and an assignment problem, whose unit amounts make most pivots degenerate
+    private static List<TransportationProblem> problems() {
+        Random random = new Random(9);
+        int[][] cost = new int[30][30];
+        int[] ones = new int[30];
+        for (int i = 0; i < 30; ++i) {
+            ones[i] = 1;
+            for (int j = 0; j < 30; ++j)
+                cost[i][j] = 1 + random.nextInt(100);
+        }
+        return List.of(TransportationProblemGenerator.generate(60, 45, 100, 100, 100, 9),
+                new TransportationProblem(cost, ones, ones.clone()));
+    }
+
+    private static class RecordingListener implements SolverListener {
+        int solvesStarted, solvesFinished, pivots, degeneratePivots, finishedPivots;
+        long initialObjective = -1, lastObjective = -1, finishedCost = -1;
+        final Set<SolverPhase> phases = EnumSet.noneOf(SolverPhase.class);
+
+        @Override
+        public void solveStarted(int m, int n) {
+            ++solvesStarted;
+        }
+
+        @Override
+        public void initialSolutionFound(long objective) {
+            initialObjective = lastObjective = objective;
+        }
+
+        @Override
+        public void phaseFinished(SolverPhase phase, long nanos) {
+            assertTrue(nanos >= 0, phase.toString());
+            phases.add(phase);
+        }
+
+        @Override
+        public void pivotFinished(int pivot, int chainLength, int amount, long objective) {
+            assertEquals(++pivots, pivot);
+            assertTrue(chainLength >= 4 && chainLength % 2 == 0, "chain of " + chainLength);
+            assertTrue(objective <= lastObjective, "pivot " + pivot);
+            if (amount == 0)
+                ++degeneratePivots;
+            lastObjective = objective;
+        }
+
+        @Override
+        public void solveFinished(int pivots, long cost) {
+            ++solvesFinished;
+            finishedPivots = pivots;
+            finishedCost = cost;
+        }
+    }
+}
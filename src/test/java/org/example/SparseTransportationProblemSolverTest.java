@@ -0,0 +1,42 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SparseTransportationProblemSolverTest {
+    // supplies in the billions and a lane cost near the int limit used to overflow the artificial cost of the
+    // northwest corner start
+    @Test
+    void largeSuppliesOverOneLanePerRow() {
+        int m = 10;
+        int[] rows = new int[m], cols = new int[m], costs = new int[m], supply = new int[m], demand = new int[m];
+        long expected = 0;
+        for (int i = 0; i < m; ++i) {
+            rows[i] = i;
+            cols[i] = (3 * i + 1) % m;
+            costs[i] = i == 0 ? 2_000_000_000 : i + 3;
+            supply[i] = i == 0 ? 1 : 1_000_000_000;
+            demand[cols[i]] = supply[i];
+            expected += (long) supply[i] * costs[i];
+        }
+        SparseTransportationProblemSolver solver = new SparseTransportationProblemSolver(
+                SparseTransportationProblem.fromLanes(rows, cols, costs, supply, demand));
+        solver.solve();
+        assertEquals(expected, solver.getCost());
+    }
+
+    @Test
+    void matchesDenseSolverOnPermittedLanes() {
+        for (int seed = 0; seed < 10; ++seed) {
+            int size = 10 + seed * 5;
+            TransportationProblem problem = TransportationProblemGenerator.generate(size, size, 10 + seed * 100, 100, 100, seed);
+            TransportationProblemSolver denseSolver = new TransportationProblemSolver(problem);
+            denseSolver.solve();
+            SparseTransportationProblemSolver solver = new SparseTransportationProblemSolver(
+                    SparseTransportationProblem.fromDense(problem, Integer.MAX_VALUE));
+            solver.solve();
+            assertEquals(denseSolver.getCost(), solver.getCost(), size + "x" + size + ", seed " + seed);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Degenerate pivots are counted, and after the stall limit Bland's rule takes over without changing the optimum
+class StallingTest {
+    // the degenerate example of Main, whose optimum ships 100 * 2 + 20 * 10 + 100 * 9 + 80 * 7. From the least cost
+    // start the one pivot left moves nothing.
+    @Test
+    void degenerateExampleReachesKnownOptimum() {
+        int[][] cost = {
+                {8, 2, 6},
+                {10, 9, 9},
+                {7, 10, 7}
+        };
+        for (InitialBasisMethod initialBasisMethod : new InitialBasisMethod[]{null, new LeastCostMethod()}) {
+            TransportationProblem problem = new TransportationProblem(cost, new int[]{100, 120, 80}, new int[]{100, 100, 100});
+            TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+            solver.setStallLimit(1);
+            solver.setInitialBasisMethod(initialBasisMethod);
+            solver.solve();
+            assertEquals(1860, solver.getCost());
+            assertTrue(SolutionValidator.isFeasible(problem, solver.getAllocation()));
+            if (initialBasisMethod != null)
+                assertEquals(1, solver.getDegeneratePivotCount());
+        }
+    }
+
+    // with every supply and demand 1 nearly all pivots move nothing
+    @Test
+    void blandsRuleTakesOverAfterStallLimit() {
+        for (int seed = 0; seed < 4; ++seed) {
+            TransportationProblem problem = assignmentProblem(new Random(seed), 40);
+            TransportationProblemSolver plainSolver = new TransportationProblemSolver(problem);
+            plainSolver.setStallLimit(Integer.MAX_VALUE);
+            plainSolver.solve();
+            assertEquals(0, plainSolver.getBlandPivotCount());
+            assertTrue(plainSolver.getDegeneratePivotCount() > 0);
+
+            for (int stallLimit : new int[]{1, 5}) {
+                TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+                solver.setStallLimit(stallLimit);
+                solver.solve();
+                String message = "stall limit " + stallLimit + ", seed " + seed;
+                assertEquals(plainSolver.getCost(), solver.getCost(), message);
+                assertTrue(solver.getDegeneratePivotCount() > 0, message);
+                assertTrue(solver.getBlandPivotCount() > 0, message);
+                assertTrue(solver.getBlandPivotCount() <= solver.getPivotCount(), message);
+                assertTrue(solver.getDegeneratePivotCount() <= solver.getPivotCount(), message);
+            }
+        }
+    }
+
+    @Test
+    void stallLimitMustBePositive() {
+        TransportationProblemSolver solver = new TransportationProblemSolver(assignmentProblem(new Random(0), 3));
+        assertThrows(RuntimeException.class, () -> solver.setStallLimit(0));
+    }
+
+    private static TransportationProblem assignmentProblem(Random random, int size) {
+        int[][] cost = new int[size][size];
+        int[] supply = new int[size], demand = new int[size];
+        for (int i = 0; i < size; ++i) {
+            supply[i] = 1;
+            demand[i] = 1;
+            for (int j = 0; j < size; ++j)
+                cost[i][j] = 1 + random.nextInt(100);
+        }
+        return new TransportationProblem(cost, supply, demand);
+    }
+}
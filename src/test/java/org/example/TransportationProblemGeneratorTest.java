@@ -0,0 +1,162 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransportationProblemGeneratorTest {
+    private static final int FORBIDDEN_COST = 1_000_000;
+
+    // rows draw from their own seeds, so neither the executor nor the number of threads shows in the problem
+    @Test
+    void sameProblemOnAnyExecutor() {
+        try (ExecutorService fixedPool = Executors.newFixedThreadPool(3)) {
+            for (TransportationProblemGenerator.CostModel costModel : TransportationProblemGenerator.CostModel.values()) {
+                for (double laneDensity : new double[]{1, 0.2}) {
+                    TransportationProblem expected = generator(97, 61, costModel, laneDensity, ForkJoinPool.commonPool(), 1).generate();
+                    String message = costModel + ", density " + laneDensity;
+                    assertSameProblem(expected, generator(97, 61, costModel, laneDensity, ForkJoinPool.commonPool(), 4).generate(), message);
+                    assertSameProblem(expected, generator(97, 61, costModel, laneDensity, fixedPool, 3).generate(), message);
+                    assertSameProblem(expected, generator(97, 61, costModel, laneDensity, fixedPool, 7).generate(), message);
+                }
+            }
+        }
+    }
+
+    // 300 rows on 2 threads take three chunks of 128 rows, the last one short
+    @Test
+    void writtenFileReadsBackAsGeneratedProblem() throws IOException {
+        Path path = Files.createTempFile("generated", ".problem");
+        try {
+            for (TransportationProblemGenerator.CostModel costModel : TransportationProblemGenerator.CostModel.values()) {
+                TransportationProblem expected = generator(300, 45, costModel, 0.5, ForkJoinPool.commonPool(), 1).generate();
+                generator(300, 45, costModel, 0.5, ForkJoinPool.commonPool(), 2).write(path);
+                assertSameProblem(expected, ProblemFiles.read(path), costModel.toString());
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    // the northwest corner staircase is always kept, so the sparse solver never has to ship over a forbidden lane
+    @Test
+    void sparseLanesStayFeasible() {
+        for (int seed = 0; seed < 10; ++seed) {
+            int m = 30 + seed * 7, n = 80 - seed * 3;
+            TransportationProblemGenerator generator = new TransportationProblemGenerator(m, n, seed);
+            generator.setMaxCost(100);
+            generator.setLaneDensity(0.05, FORBIDDEN_COST);
+            TransportationProblem problem = generator.generate();
+
+            int permitted = 0;
+            for (int[] row : problem.cost) {
+                for (int cost : row) {
+                    if (cost < FORBIDDEN_COST)
+                        ++permitted;
+                }
+            }
+            String message = m + "x" + n + ", seed " + seed;
+            assertTrue(permitted < m * n / 5, message);
+
+            SparseTransportationProblemSolver solver = new SparseTransportationProblemSolver(SparseTransportationProblem.fromDense(problem, FORBIDDEN_COST));
+            solver.solve();
+            SparseAllocation allocation = solver.getAllocation();
+            for (int k = 0; k < allocation.size(); ++k)
+                assertTrue(problem.cost[allocation.getRow(k)][allocation.getColumn(k)] < FORBIDDEN_COST, message);
+        }
+    }
+
+    @Test
+    void costsStayWithinMaxCost() {
+        for (TransportationProblemGenerator.CostModel costModel : TransportationProblemGenerator.CostModel.values()) {
+            for (int clusterCount : new int[]{1, 8}) {
+                TransportationProblemGenerator generator = new TransportationProblemGenerator(40, 50, clusterCount);
+                generator.setMaxCost(25);
+                generator.setCostModel(costModel);
+                generator.setClusterCount(clusterCount);
+                TransportationProblem problem = generator.generate();
+
+                int minCost = Integer.MAX_VALUE, maxCost = 0;
+                for (int[] row : problem.cost) {
+                    for (int cost : row) {
+                        minCost = Math.min(minCost, cost);
+                        maxCost = Math.max(maxCost, cost);
+                    }
+                }
+                assertTrue(minCost >= 1 && maxCost <= 25, costModel + ": " + minCost + ".." + maxCost);
+                assertTrue(maxCost > minCost, costModel.toString());
+                assertEquals(total(problem.supply), total(problem.demand), costModel.toString());
+            }
+        }
+    }
+
+    // one side far smaller than the other: 3 supplies of 1 against 500 demands of up to 99 leaves most demands at 0
+    @Test
+    void balanceEqualsTotals() {
+        Random random = new Random(21);
+        int[][] shapes = {{3, 500, 2, 100}, {500, 3, 100, 2}, {1, 1, 50, 2}, {1, 1000, 2, 2}, {200, 300, 100, 100}};
+        for (int[] shape : shapes) {
+            for (int trial = 0; trial < 20; ++trial) {
+                int[] supply = randomAmounts(random, shape[0], shape[2]), demand = randomAmounts(random, shape[1], shape[3]);
+                long target = Math.min(total(supply), total(demand));
+                TransportationProblemGenerator.balance(supply, demand);
+
+                String message = shape[0] + "x" + shape[1] + ", trial " + trial;
+                assertEquals(target, total(supply), message);
+                assertEquals(target, total(demand), message);
+                for (int[] amounts : new int[][]{supply, demand}) {
+                    int floor = target >= amounts.length ? 1 : 0;
+                    for (int amount : amounts)
+                        assertTrue(amount >= floor, message);
+                }
+            }
+
+            TransportationProblem problem = TransportationProblemGenerator.generate(shape[0], shape[1], 10, shape[2], shape[3], shape[0]);
+            assertEquals(total(problem.supply), total(problem.demand));
+        }
+    }
+
+    private static TransportationProblemGenerator generator(int m, int n, TransportationProblemGenerator.CostModel costModel,
+                                                            double laneDensity, ExecutorService executor, int numThreads) {
+        TransportationProblemGenerator generator = new TransportationProblemGenerator(m, n, 21);
+        generator.setMaxCost(1000);
+        generator.setCostModel(costModel);
+        if (laneDensity < 1)
+            generator.setLaneDensity(laneDensity, FORBIDDEN_COST);
+        generator.setExecutor(executor, numThreads);
+        return generator;
+    }
+
+    private static void assertSameProblem(TransportationProblem expected, TransportationProblem actual, String message) {
+        assertArrayEquals(expected.supply, actual.supply, message);
+        assertArrayEquals(expected.demand, actual.demand, message);
+        assertEquals(expected.cost.length, actual.cost.length, message);
+        for (int i = 0; i < expected.cost.length; ++i)
+            assertArrayEquals(expected.cost[i], actual.cost[i], message + ", row " + i);
+    }
+
+    // amounts in 1..max - 1, as the generator draws them
+    private static int[] randomAmounts(Random random, int length, int max) {
+        int[] amounts = new int[length];
+        for (int k = 0; k < length; ++k)
+            amounts[k] = 1 + random.nextInt(max - 1);
+        return amounts;
+    }
+
+    private static long total(int[] amounts) {
+        long total = 0;
+        for (int amount : amounts)
+            total += amount;
+        return total;
+    }
+}
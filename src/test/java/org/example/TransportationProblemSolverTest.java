@@ -0,0 +1,247 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransportationProblemSolverTest {
+    // int costs near 2e9 overflow int potentials on any size; they used to send the pivot loop cycling
+    @Test
+    void costsBeyondIntPotentialsAreRejected() {
+        Random random = new Random(11);
+        for (int t = 0; t < 16; ++t) {
+            TransportationProblem problem = randomProblem(random, 3 + random.nextInt(4), 3 + random.nextInt(4), 2_000_000_000);
+            RuntimeException e = assertThrows(RuntimeException.class, () -> new TransportationProblemSolver(problem));
+            assertTrue(e.getMessage().contains("WideTransportationProblemSolver"), e.getMessage());
+
+            // the wide solver is where such problems go
+            WideTransportationProblemSolver wideSolver = new WideTransportationProblemSolver(WideTransportationProblem.of(problem));
+            wideSolver.solve();
+            NetworkSimplexSolver networkSolver = new NetworkSimplexSolver(problem);
+            networkSolver.solve();
+            assertEquals(networkSolver.getCost(), wideSolver.getCost());
+        }
+    }
+
+    @Test
+    void costsUpToTheLimitMatchWideSolver() {
+        Random random = new Random(12);
+        for (int t = 0; t < 16; ++t) {
+            int m = 3 + random.nextInt(4), n = 3 + random.nextInt(4);
+            int costLimit = (int) (Integer.MAX_VALUE / (2L * (m + n) + 1));
+            TransportationProblem problem = randomProblem(random, m, n, costLimit + 1);
+            TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+            solver.solve();
+            WideTransportationProblemSolver wideSolver = new WideTransportationProblemSolver(WideTransportationProblem.of(problem));
+            wideSolver.solve();
+            assertEquals(wideSolver.getCost(), solver.getCost(), m + "x" + n);
+        }
+    }
+
+    // The dummy node has to behave exactly like an explicit extra row or column whose costs are the penalties.
+    // Initial basis methods do not apply to unbalanced problems, which start from the northwest corner instead.
+    @Test
+    void unbalancedMatchesPaddedCopy() {
+        Random random = new Random(14);
+        for (int t = 0; t < 20; ++t) {
+            int m = 5 + random.nextInt(60), n = 5 + random.nextInt(60);
+            int[][] cost = new int[m][n];
+            for (int[] costRow : cost) {
+                for (int j = 0; j < n; ++j)
+                    costRow[j] = random.nextInt(100);
+            }
+            int[] supply = new int[m], demand = new int[n], overflowPenalties = new int[m], shortagePenalties = new int[n];
+            long supplySum = 0, demandSum = 0;
+            for (int i = 0; i < m; ++i) {
+                supply[i] = 1 + random.nextInt(50);
+                overflowPenalties[i] = random.nextInt(150);
+                supplySum += supply[i];
+            }
+            for (int j = 0; j < n; ++j) {
+                demand[j] = 1 + random.nextInt(50);
+                shortagePenalties[j] = random.nextInt(150);
+                demandSum += demand[j];
+            }
+            if (supplySum == demandSum) {
+                ++supply[0];
+                ++supplySum;
+            }
+            TransportationProblem problem = new TransportationProblem(cost, supply, demand);
+
+            TransportationProblemSolver paddedSolver = new TransportationProblemSolver(padded(problem, overflowPenalties, shortagePenalties));
+            paddedSolver.solve();
+
+            TransportationProblemSolver flatSolver = new TransportationProblemSolver(problem);
+            flatSolver.setMatrixLayout(MatrixLayout.FLAT);
+            TransportationProblemSolver vogelSolver = new TransportationProblemSolver(problem);
+            vogelSolver.setInitialBasisMethod(new VogelApproximationMethod());
+            for (TransportationProblemSolver solver : new TransportationProblemSolver[]{new TransportationProblemSolver(problem),
+                    new ParallelTransportationProblemSolver(problem), flatSolver, vogelSolver}) {
+                solver.setOverflowPenalties(overflowPenalties);
+                solver.setShortagePenalties(shortagePenalties);
+                solver.solve();
+
+                String name = m + "x" + n + ", case " + t + ", " + solver.getClass().getSimpleName();
+                assertFalse(solver.isBalanced(), name);
+                assertEquals(paddedSolver.getCost(), solver.getCost(), name);
+                long unusedSupply = 0, unmetDemand = 0;
+                for (int i = 0; i < m; ++i) {
+                    long shipped = 0;
+                    for (int j = 0; j < n; ++j)
+                        shipped += solver.getAllocation()[i][j];
+                    assertEquals(supply[i], shipped + solver.getUnusedSupply(i), name + ", row " + i);
+                    unusedSupply += solver.getUnusedSupply(i);
+                }
+                for (int j = 0; j < n; ++j) {
+                    long received = 0;
+                    for (int i = 0; i < m; ++i)
+                        received += solver.getAllocation()[i][j];
+                    assertEquals(demand[j], received + solver.getUnmetDemand(j), name + ", column " + j);
+                    unmetDemand += solver.getUnmetDemand(j);
+                }
+                assertEquals(Math.max(0, supplySum - demandSum), unusedSupply, name);
+                assertEquals(Math.max(0, demandSum - supplySum), unmetDemand, name);
+            }
+        }
+    }
+
+    // every pricing strategy walks its own path of pivots, on the sequential solver and on the chunked scans of the
+    // parallel one, but all of them end at the same optimum
+    @Test
+    void pricingStrategiesAgree() {
+        for (int seed = 0; seed < 6; ++seed) {
+            int size = 20 + seed * 35;
+            TransportationProblem problem = TransportationProblemGenerator.generate(size, size, 10 + seed * 30, 100, 100, seed);
+            TransportationProblemSolver reference = new TransportationProblemSolver(problem);
+            reference.solve();
+            PricingStrategy[] strategies = {new DantzigPricing(), new FirstNegativePricing(), new PartialPricing(Math.max(1, size / 10)),
+                    new CandidateListPricing(Math.max(1, size / 10), 20)};
+            for (PricingStrategy strategy : strategies) {
+                for (TransportationProblemSolver solver : new TransportationProblemSolver[]{new TransportationProblemSolver(problem),
+                        new ParallelTransportationProblemSolver(problem)}) {
+                    solver.setPricingStrategy(strategy);
+                    solver.solve();
+                    assertEquals(reference.getCost(), solver.getCost(), size + "x" + size + ", " + strategy.getClass().getSimpleName()
+                            + ", " + solver.getClass().getSimpleName());
+                }
+            }
+        }
+    }
+
+    // every layout and cycle search walks its own path of pivots, but all of them end at the same optimum
+    @Test
+    void layoutsAndCycleSearchesAgree() {
+        for (int seed = 0; seed < 10; ++seed) {
+            int m = 10 + seed * 5, n = 60 - seed * 3;
+            TransportationProblem problem = TransportationProblemGenerator.generate(m, n, 10, 100, 100, seed);
+            TransportationProblemSolver reference = new TransportationProblemSolver(problem);
+            reference.solve();
+            for (CycleSearch cycleSearch : CycleSearch.values()) {
+                for (MatrixLayout layout : MatrixLayout.values()) {
+                    TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+                    solver.setCycleSearch(cycleSearch);
+                    solver.setMatrixLayout(layout);
+                    solver.solve();
+                    assertEquals(reference.getCost(), solver.getCost(), m + "x" + n + ", seed " + seed + ", " + cycleSearch + ", " + layout);
+                }
+            }
+        }
+    }
+
+    // a re-solve from the previous basis has to reach the optimum of a solve from scratch of the changed problem,
+    // and leave the problem the solver was created with alone
+    @Test
+    void resolveMatchesColdSolve() {
+        Random random = new Random(10);
+        for (int seed = 0; seed < 10; ++seed) {
+            int size = 20 + seed * 10;
+            TransportationProblem original = TransportationProblemGenerator.generate(size, size, 10, 100, 100, seed);
+            TransportationProblem problem = copy(original);
+            TransportationProblemSolver solver = new TransportationProblemSolver(original);
+            solver.solve();
+
+            for (int round = 0; round < 3; ++round) {
+                ProblemChange change = new ProblemChange();
+                for (int k = 0; k < 5; ++k) {
+                    int i = random.nextInt(size), j = random.nextInt(size), cost = random.nextInt(10) + 1;
+                    change.setCost(i, j, cost);
+                    problem.cost[i][j] = cost;
+                }
+                int from = random.nextInt(size), to = random.nextInt(size), amount = random.nextInt(10) + 1;
+                change.setSupply(from, problem.supply[from] + amount);
+                change.setDemand(to, problem.demand[to] + amount);
+                problem.supply[from] += amount;
+                problem.demand[to] += amount;
+
+                solver.resolve(change);
+                TransportationProblemSolver coldSolver = new TransportationProblemSolver(copy(problem));
+                coldSolver.solve();
+                String message = size + "x" + size + ", seed " + seed + ", round " + round;
+                assertEquals(coldSolver.getCost(), solver.getCost(), message);
+                assertEquals(solver.getCost(), SolutionValidator.totalCost(problem, solver.getAllocation()), message);
+                assertTrue(SolutionValidator.isFeasible(problem, solver.getAllocation()), message);
+            }
+
+            TransportationProblem unchanged = TransportationProblemGenerator.generate(size, size, 10, 100, 100, seed);
+            assertArrayEquals(unchanged.supply, original.supply);
+            assertArrayEquals(unchanged.demand, original.demand);
+            for (int i = 0; i < size; ++i)
+                assertArrayEquals(unchanged.cost[i], original.cost[i], "row " + i);
+        }
+    }
+
+    private static TransportationProblem copy(TransportationProblem problem) {
+        int[][] cost = new int[problem.cost.length][];
+        for (int i = 0; i < cost.length; ++i)
+            cost[i] = problem.cost[i].clone();
+        return new TransportationProblem(cost, problem.supply.clone(), problem.demand.clone());
+    }
+
+    // Balanced copy with the dummy node as an explicit last row or column
+    private static TransportationProblem padded(TransportationProblem problem, int[] overflowPenalties, int[] shortagePenalties) {
+        int m = problem.supply.length, n = problem.demand.length;
+        long imbalance = 0;
+        for (int s : problem.supply)
+            imbalance += s;
+        for (int d : problem.demand)
+            imbalance -= d;
+
+        int rows = m + (imbalance < 0 ? 1 : 0), cols = n + (imbalance > 0 ? 1 : 0);
+        int[][] cost = new int[rows][cols];
+        int[] supply = Arrays.copyOf(problem.supply, rows), demand = Arrays.copyOf(problem.demand, cols);
+        for (int i = 0; i < m; ++i) {
+            System.arraycopy(problem.cost[i], 0, cost[i], 0, n);
+            if (imbalance > 0)
+                cost[i][n] = overflowPenalties[i];
+        }
+        if (imbalance > 0)
+            demand[n] = (int) imbalance;
+        if (imbalance < 0) {
+            cost[m] = shortagePenalties.clone();
+            supply[m] = (int) -imbalance;
+        }
+        return new TransportationProblem(cost, supply, demand);
+    }
+
+    // balanced, with costs in [0, maxCost)
+    private static TransportationProblem randomProblem(Random random, int m, int n, int maxCost) {
+        int[][] cost = new int[m][n];
+        for (int[] costRow : cost) {
+            for (int j = 0; j < n; ++j)
+                costRow[j] = random.nextInt(maxCost);
+        }
+        int[] supply = new int[m], demand = new int[n];
+        for (int i = 0; i < m; ++i) {
+            supply[i] = 1 + random.nextInt(100);
+            demand[random.nextInt(n)] += supply[i];
+        }
+        return new TransportationProblem(cost, supply, demand);
+    }
+}
@@ -0,0 +1,21 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The long solver has to find the same optimum as the int one on problems both can take
+class WideTransportationProblemSolverTest {
+    @Test
+    void matchesIntSolver() {
+        for (int seed = 0; seed < 20; ++seed) {
+            int m = 5 + seed * 3, n = 40 - seed;
+            TransportationProblem problem = TransportationProblemGenerator.generate(m, n, 10, 100, 100, seed);
+            TransportationProblemSolver solver = new TransportationProblemSolver(problem);
+            solver.solve();
+            WideTransportationProblemSolver wideSolver = new WideTransportationProblemSolver(WideTransportationProblem.of(problem));
+            wideSolver.solve();
+            assertEquals(solver.getCost(), wideSolver.getCost(), m + "x" + n + ", seed " + seed);
+        }
+    }
+}